@@ -5,7 +5,6 @@ import java.awt.event.ActionEvent;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.net.URL;
-import java.util.Random;
 
 /*
  * The Area class represents a graphical user interface for exploring
@@ -20,9 +19,10 @@ public class Area extends JFrame {
     private int xPosition = 0;//The current x-coordinate of the player's position in the area.
     private int yPosition = 0;//The current y-coordinate of the player's position in the area.
     private final JButton[][] buttons;//A 2D array of buttons representing the grid of the area.
-    private final Random random = new Random();//A random number generator for generating random events.
     private final Inventory inventory;//The player's inventory containing creatures.
     private final int areaLevel; //The level of the area, which may affect creature encounters.
+    private EncounterTable encounterTable;//The species that can appear in the area.
+    private final EncounterTable[][] tileEncounterTables;//The species that can appear on each tile, or null to use the area's table.
     private ImageIcon playerIcon; //The ImageIcon representing the player character.
     private static final Color PASTEL_RED = new Color(255, 192, 203);//A constant color representing pastel red.
 
@@ -46,6 +46,8 @@ public class Area extends JFrame {
         this.areaLevel = areaLevel;
         this.inventory = inventory;
         this.buttons = new JButton[height][width];
+        this.encounterTable = EncounterTable.forLevel(areaLevel);
+        this.tileEncounterTables = new EncounterTable[height][width];
         this.playerIcon = createScaledIcon("/player.png", 50, 50);
         initializeUI();
     }
@@ -178,15 +180,48 @@ public class Area extends JFrame {
      */
     public boolean encounterCreature() {
 
-        return random.nextInt(100) < 40;
+        return RandomService.current().nextInt(100) < 40;
+    }
+
+    /**
+     * Sets the species that can appear anywhere in the area.
+     *
+     * @param encounterTable The encounter table of the area.
+     */
+    public void setEncounterTable(EncounterTable encounterTable) {
+        this.encounterTable = encounterTable;
+    }
+
+    /**
+     * Sets the species that can appear on one tile, overriding the area's table.
+     *
+     * @param x              The x-coordinate of the tile.
+     * @param y              The y-coordinate of the tile.
+     * @param encounterTable The encounter table of the tile, or null to use the area's table.
+     */
+    public void setTileEncounterTable(int x, int y, EncounterTable encounterTable) {
+        tileEncounterTables[y][x] = encounterTable;
+    }
+
+    /**
+     * Gets the species that can appear on a tile.
+     *
+     * @param x The x-coordinate of the tile.
+     * @param y The y-coordinate of the tile.
+     * @return The encounter table of the tile, or the area's table if the tile has none.
+     */
+    public EncounterTable getEncounterTable(int x, int y) {
+        EncounterTable tileTable = tileEncounterTables[y][x];
+        return tileTable != null ? tileTable : encounterTable;
     }
 
     /**
      * Initiates a creature encounter and battle sequence.
      */
     public void encounterAndBattle() {
-        if (encounterCreature()) {
-            Creature enemyCreature = getRandomCreatureForArea(areaLevel);
+        EncounterTable table = getEncounterTable(xPosition, yPosition);
+        if (table != null && encounterCreature()) {
+            Creature enemyCreature = table.spawn(RandomService.current());
             BattleGUI battleGUI = new BattleGUI(inventory.getActiveCreature(), enemyCreature, inventory);
             battleGUI.setVisible(true);
 
@@ -201,20 +236,8 @@ public class Area extends JFrame {
      * @return A random creature for the area.
      */
     public Creature getRandomCreatureForArea(int areaLevel) {
-            Random random = new Random();
-            switch (areaLevel) {
-                case 1:
-
-                    return EL1Creatures.getRandomCreature();
-                case 2:
-
-                    return EL2Creatures.getRandomCreature();
-                case 3:
-
-                    return EL3Creatures.getRandomCreature();
-                default:
-                    return null;
-            }
-        }
+        EncounterTable table = EncounterTable.forLevel(areaLevel);
+        return table == null ? null : table.spawn(RandomService.current());
     }
+}
 
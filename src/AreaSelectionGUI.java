@@ -8,6 +8,7 @@ import java.awt.*;
  *
  */
 public class AreaSelectionGUI extends JFrame {
+    private static final double RARE_SHARE = 0.1;//The share of encounters on a rare tile that are of the next evolution level.
 
     private Inventory inventory;//The player's inventory, which may contain creatures.
     private GameManager gameManager;//The game manager responsible for managing game states and transitions.
@@ -64,6 +65,8 @@ public class AreaSelectionGUI extends JFrame {
 
      /**
      * Opens an area exploration interface with the specified dimensions and area level.
+     * The tile in the far corner of the area is a rare tile, where creatures of the
+     * next evolution level can also appear.
      *
      * @param width      The width of the area grid.
      * @param height     The height of the area grid.
@@ -71,7 +74,42 @@ public class AreaSelectionGUI extends JFrame {
      */
     public void openArea(int width, int height, int areaLevel) {
         Area area = new Area(width, height, areaLevel, inventory);
+        EncounterTable rareTable = createRareTable(areaLevel);
+        if (rareTable != null) {
+            area.setTileEncounterTable(width - 1, height - 1, rareTable);
+        }
         area.setVisible(true);
         dispose();
     }
+
+    /**
+     * Creates the encounter table of a rare tile: the species of the area's level keep
+     * their weights, and the species of the next level share {@value #RARE_SHARE} of
+     * the encounters between them.
+     *
+     * @param areaLevel The level of the area.
+     * @return The table, or null if the area's level or the next level has no species.
+     */
+    public static EncounterTable createRareTable(int areaLevel) {
+        EncounterTable common = EncounterTable.forLevel(areaLevel);
+        EncounterTable rare = EncounterTable.forLevel(areaLevel + 1);
+        if (common == null || rare == null) {
+            return null;
+        }
+        EncounterTable.Builder builder = EncounterTable.builder();
+        double commonTotal = 0;
+        for (int i = 0; i < common.size(); i++) {
+            builder.add(common.getSpecies(i), common.getWeight(i));
+            commonTotal += common.getWeight(i);
+        }
+        double rareTotal = 0;
+        for (int i = 0; i < rare.size(); i++) {
+            rareTotal += rare.getWeight(i);
+        }
+        double scale = commonTotal * RARE_SHARE / (1 - RARE_SHARE) / rareTotal;
+        for (int i = 0; i < rare.size(); i++) {
+            builder.add(rare.getSpecies(i), rare.getWeight(i) * scale);
+        }
+        return builder.build();
+    }
 }
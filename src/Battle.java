@@ -1,4 +1,4 @@
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * The  Battle class represents a battle between a player's creature and
@@ -9,17 +9,20 @@ import java.util.Random;
 public class Battle {
     private Creature playerCreature;// The player's active creature in the battle.
     private final Creature enemy;//The enemy creature in the battle.
-    private final Inventory playerInventory;//The player's inventory containing creatures and items.
-    private final Random random = new Random();//A random number generator for generating random events.
-    private static final int MAX_ACTIONS = 3;//The maximum number of actions a player can take in a battle.
+    private final Inventory playerInventory;//The player's inventory containing creatures and items, or null for a battle without one.
+    private final SplittableRandom random;//A random number generator for generating random events.
+    private final TypeChart typeChart = TypeChart.getDefault();//The chart of type effectiveness multipliers.
+    public static final int MAX_ACTIONS = 3;//The maximum number of actions a player can take in a battle.
+    public static final int ENEMY_STARTING_HEALTH = 50;//The health the enemy creature starts the battle with.
     private int actionsTaken = 0;//The number of actions taken in the current battle.
     private int lastDamageDealt = 0;//The damage dealt in the last attack.
     private boolean enemyCaught = false;//Indicates whether the enemy creature has been successfully caught by the player.
+    private BattleJournal journal;//The journal recording the battle's actions, or null if the battle is not recorded.
 
 
     /**
      * Constructs a Battle object with the player's creature, enemy creature,
-     * and player inventory.
+     * and player inventory, using the calling thread's stream from the {@link RandomService}.
      *
      * @param playerCreature  The player's active creature in the battle.
      * @param enemy           The enemy creature in the battle.
@@ -27,33 +30,62 @@ public class Battle {
      */
 
     public Battle(Creature playerCreature, Creature enemy, Inventory playerInventory) {
+        this(playerCreature, enemy, playerInventory, RandomService.current());
+    }
+
+    /**
+     * Constructs a Battle object that draws its random events from the given stream.
+     *
+     * @param playerCreature  The player's active creature in the battle.
+     * @param enemy           The enemy creature in the battle.
+     * @param playerInventory The player's inventory containing creatures and items.
+     * @param random          The random stream of the battle, confined to one thread.
+     */
+    public Battle(Creature playerCreature, Creature enemy, Inventory playerInventory, SplittableRandom random) {
+        this.random = random;
         this.playerCreature = playerCreature;
         this.enemy = enemy;
         this.playerInventory = playerInventory;
-        this.enemy.setHealth(50); // Set enemy's health to 50
+        this.enemy.setHealth(ENEMY_STARTING_HEALTH); // Set enemy's health to 50
+    }
+
+    /**
+     * Constructs a Battle object that is not tied to an inventory, for simulations that
+     * run many battles. Swaps are allowed to any creature the caller passes, and a
+     * captured enemy is only reported by {@link #isEnemyCaught()}.
+     *
+     * @param playerCreature The player's active creature in the battle.
+     * @param enemy          The enemy creature in the battle.
+     * @param random         The random stream of the battle, confined to one thread.
+     */
+    public Battle(Creature playerCreature, Creature enemy, SplittableRandom random) {
+        this(playerCreature, enemy, null, random);
     }
 
     /**
      * Performs an attack action in the battle, dealing damage to the enemy creature.
      * Damage calculation takes into account randomness, player's creature level,
-     * and type advantages.
+     * and the type effectiveness from the {@link TypeChart} against each of the enemy's types.
      */
 
     public void attack() {
         if (actionsTaken >= MAX_ACTIONS) return;
         int baseDamage = random.nextInt(10) + 1;
         int damageMultiplier = playerCreature.getEvolutionLevel();
-        int damage = baseDamage * damageMultiplier;
-        if (isTypeAdvantage(playerCreature.getType(), enemy.getType())) {
-            damage *= 1.5;
-        }
+        int typeMultiplier = typeChart.getMultiplierForMask(playerCreature.getType().ordinal(), enemy.getSpecies().getTypeMask());
+        int damage = baseDamage * damageMultiplier * typeMultiplier / TypeChart.NEUTRAL;
         enemy.reduceHealth(damage);
         lastDamageDealt = damage;
         actionsTaken++;
+        if (journal != null) {
+            int flags = typeMultiplier > TypeChart.NEUTRAL ? BattleJournal.FLAG_TYPE_ADVANTAGE : 0;
+            record(BattleAction.ATTACK, flags, baseDamage, damage);
+        }
     }
 
     /**
-     * Checks if a type advantage exists between two creature types.
+     * Checks if a type advantage exists between two creature types, that is, if the
+     * type chart gives the player's type more than neutral damage against the enemy's.
      *
      * @param playerType The type of the player's creature.
      * @param enemyType  The type of the enemy creature.
@@ -61,9 +93,7 @@ public class Battle {
      */
 
     public boolean isTypeAdvantage(CreatureType playerType, CreatureType enemyType) {
-        return (playerType == CreatureType.FIRE && enemyType == CreatureType.NATURE) ||
-                (playerType == CreatureType.NATURE && enemyType == CreatureType.WATER) ||
-                (playerType == CreatureType.WATER && enemyType == CreatureType.FIRE);
+        return typeChart.getMultiplier(playerType, enemyType) > TypeChart.NEUTRAL;
     }
 
 
@@ -75,12 +105,18 @@ public class Battle {
      */
 
     public void swap(Creature newActiveCreature) {
-        if (actionsTaken >= MAX_ACTIONS || playerInventory.getCreatures().size() <= 1 || newActiveCreature == playerCreature) {
+        if (actionsTaken >= MAX_ACTIONS || newActiveCreature == playerCreature
+                || playerInventory != null && playerInventory.size() <= 1) {
             return;
         }
         this.playerCreature = newActiveCreature;
-        playerInventory.setActiveCreature(newActiveCreature);
+        if (playerInventory != null) {
+            playerInventory.setActiveCreature(newActiveCreature);
+        }
         actionsTaken++;
+        if (journal != null) {
+            record(BattleAction.SWAP, 0, -1, -1);
+        }
     }
 
     /**
@@ -90,12 +126,18 @@ public class Battle {
     public void tryCapture() {
         if (actionsTaken >= MAX_ACTIONS) return;
         int catchChance = 40 + 50 - enemy.getHealth();
-        boolean success = random.nextInt(100) < catchChance;
+        int roll = random.nextInt(100);
+        boolean success = roll < catchChance;
         if (success) {
-            playerInventory.addCreature(enemy);
+            if (playerInventory != null) {
+                playerInventory.addCreature(enemy);
+            }
             enemyCaught = true;
         }
         actionsTaken++;
+        if (journal != null) {
+            record(BattleAction.CATCH, success ? BattleJournal.FLAG_CAUGHT : 0, roll, catchChance);
+        }
     }
 
      /**
@@ -103,6 +145,23 @@ public class Battle {
      */
     public void flee() {
         actionsTaken = MAX_ACTIONS;
+        if (journal != null) {
+            record(BattleAction.FLEE, 0, -1, -1);
+        }
+    }
+
+    /**
+     * Sets the journal that records every action of this battle. The enemy's ID is
+     * used as the battle ID.
+     *
+     * @param journal The journal to record to, or null to stop recording.
+     */
+    public void setJournal(BattleJournal journal) {
+        this.journal = journal;
+    }
+
+    private void record(BattleAction action, int flags, int roll, int value) {
+        journal.record(enemy.getId(), action, flags, actionsTaken, playerCreature.getEvolutionLevel(), roll, value, enemy.getHealth());
     }
 
     /**
@@ -132,6 +191,15 @@ public class Battle {
         return lastDamageDealt;
     }
 
+    /**
+     * Gets the number of actions taken in the current battle.
+     *
+     * @return The number of actions taken so far.
+     */
+    public int getActionsTaken() {
+        return actionsTaken;
+    }
+
     /**
      * Checks if the battle is over, which can occur when the enemy's health reaches
      * zero or when the maximum number of actions is taken.
@@ -0,0 +1,9 @@
+/**
+ * The BattleAction enum represents the actions a player can take during a battle.
+ */
+public enum BattleAction {
+    ATTACK, // Attacks the enemy creature.
+    CATCH, // Attempts to capture the enemy creature.
+    SWAP, // Swaps the active creature with another one from the inventory.
+    FLEE; // Ends the battle immediately.
+}
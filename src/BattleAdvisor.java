@@ -0,0 +1,200 @@
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The BattleAdvisor class recommends the battle action that gives the best chance
+ * of capturing the enemy. The recommendations come from a policy table computed
+ * once by value iteration over every battle state: enemy health, actions taken,
+ * the active creature and which creatures the inventory holds to swap in.
+ *
+ * <p>Creatures are grouped into classes by evolution level and type, since those
+ * are all the battle rules look at. An enemy's species and level do not change the
+ * battle either, so one table per enemy type covers every species and level. Each
+ * state's recommendation is packed into one byte, and a lookup is a single array read.
+ *
+ */
+public class BattleAdvisor {
+    public static final int MAX_LEVEL = SpeciesCatalog.getDefault().getMaxLevel();//The highest evolution level of the game's species.
+    private static final CreatureType[] TYPES = CreatureType.values();
+    private static final int CLASSES = MAX_LEVEL * TYPES.length;//The number of creature classes.
+    private static final int MAX_CLASSES = 12;//The most classes the policy table can be built for, as it doubles in size with each class.
+    private static final int MASKS = 1 << CLASSES;//The number of sets of classes an inventory can hold.
+    private static final int HEALTH_STATES = Battle.ENEMY_STARTING_HEALTH + 1;
+    private static final int STATES = Battle.MAX_ACTIONS * HEALTH_STATES;//The states with actions left, per class and mask.
+    private static final BattleAction[] ACTIONS = BattleAction.values();
+    private static final double EPSILON = 1e-12;//The change in value below which the iteration has converged.
+
+    private static final CompletableFuture<BattleAdvisor> SHARED =
+            CompletableFuture.supplyAsync(() -> new BattleAdvisor(TypeChart.getDefault()));//The advisor used by the game, built in the background.
+
+    private final byte[] policy;//The recommended action of every state; the swap target class is stored above the action bits.
+
+    /**
+     * Constructs an advisor, computing the policy table for every enemy type.
+     *
+     * @param typeChart The chart of type effectiveness multipliers.
+     * @throws IllegalStateException if the species catalog has too many evolution levels for the policy table.
+     */
+    public BattleAdvisor(TypeChart typeChart) {
+        if (CLASSES > MAX_CLASSES) {
+            throw new IllegalStateException(MAX_LEVEL + " evolution levels of " + TYPES.length
+                    + " types are too many creature classes for the policy table");
+        }
+        this.policy = new byte[TYPES.length * MASKS * CLASSES * STATES];
+        for (CreatureType enemyType : TYPES) {
+            iterate(typeChart, enemyType);
+        }
+    }
+
+    /**
+     * Gets the advisor used by the game. It is computed on a background thread the
+     * first time this class is used, so callers on the event dispatch thread should
+     * check {@link CompletableFuture#getNow(Object)} or attach a callback instead of waiting.
+     *
+     * @return The future holding the shared advisor.
+     */
+    public static CompletableFuture<BattleAdvisor> getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Gets the class of a creature, from its evolution level and type.
+     *
+     * @param creature The creature.
+     * @return The class of the creature.
+     */
+    public static int classOf(Creature creature) {
+        int level = Math.max(1, Math.min(MAX_LEVEL, creature.getEvolutionLevel()));
+        return (level - 1) * TYPES.length + creature.getType().ordinal();
+    }
+
+    /**
+     * Gets the set of classes of the given creatures, as a bitmask.
+     *
+     * @param creatures The creatures, such as the inventory's creatures.
+     * @return The bitmask of their classes.
+     */
+    public static int classMask(List<Creature> creatures) {
+        int mask = 0;
+        for (Creature creature : creatures) {
+            mask |= 1 << classOf(creature);
+        }
+        return mask;
+    }
+
+    /**
+     * Recommends the next action of a battle.
+     *
+     * @param battle         The battle.
+     * @param inventoryMask  The classes of the creatures in the player's inventory, from {@link #classMask(List)}.
+     * @return The recommended action.
+     */
+    public BattleAction recommend(Battle battle, int inventoryMask) {
+        return ACTIONS[lookup(battle, inventoryMask) & 3];
+    }
+
+    /**
+     * Gets the class of creature to swap to when {@link #recommend(Battle, int)} recommends a swap.
+     *
+     * @param battle        The battle.
+     * @param inventoryMask The classes of the creatures in the player's inventory.
+     * @return The class to swap to.
+     */
+    public int recommendSwapClass(Battle battle, int inventoryMask) {
+        return (lookup(battle, inventoryMask) & 0xff) >>> 2;
+    }
+
+    private byte lookup(Battle battle, int inventoryMask) {
+        Creature player = battle.getPlayerCreature();
+        int playerClass = classOf(player);
+        int mask = (inventoryMask | 1 << playerClass) & (MASKS - 1);
+        int health = Math.max(0, Math.min(Battle.ENEMY_STARTING_HEALTH, battle.getEnemy().getHealth()));
+        int actions = Math.min(battle.getActionsTaken(), Battle.MAX_ACTIONS - 1);
+        return policy[index(battle.getEnemy().getType().ordinal(), mask, playerClass) + actions * HEALTH_STATES + health];
+    }
+
+    private static int index(int enemyType, int mask, int playerClass) {
+        return ((enemyType * MASKS + mask) * CLASSES + playerClass) * STATES;
+    }
+
+    /**
+     * Runs value iteration for one enemy type until the capture probabilities of all
+     * states stop changing, and stores the best action of each state.
+     *
+     * @param typeChart The chart of type effectiveness multipliers.
+     * @param enemyType The type of the enemy.
+     */
+    private void iterate(TypeChart typeChart, CreatureType enemyType) {
+        double[] value = new double[MASKS * CLASSES * STATES];
+        int[] multipliers = new int[CLASSES];
+        for (int c = 0; c < CLASSES; c++) {
+            multipliers[c] = typeChart.getMultiplier(TYPES[c % TYPES.length], enemyType);
+        }
+        int policyBase = enemyType.ordinal() * MASKS * CLASSES * STATES;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int mask = 1; mask < MASKS; mask++) {
+                for (int c = 0; c < CLASSES; c++) {
+                    if ((mask & 1 << c) == 0) {
+                        continue;
+                    }
+                    int level = c / TYPES.length + 1;
+                    int base = (mask * CLASSES + c) * STATES;
+                    for (int actions = 0; actions < Battle.MAX_ACTIONS; actions++) {
+                        for (int health = 1; health < HEALTH_STATES; health++) {
+                            int state = actions * HEALTH_STATES + health;
+                            double bestValue = 0;
+                            int bestChoice = BattleAction.FLEE.ordinal();
+
+                            double catchChance = Math.max(0, Math.min(100, 40 + 50 - health)) / 100.0;
+                            double catchValue = catchChance + (1 - catchChance) * next(value, base, actions, health);
+                            if (catchValue > bestValue) {
+                                bestValue = catchValue;
+                                bestChoice = BattleAction.CATCH.ordinal();
+                            }
+
+                            double attackValue = 0;
+                            for (int roll = 1; roll <= 10; roll++) {
+                                int damage = roll * level * multipliers[c] / TypeChart.NEUTRAL;
+                                attackValue += next(value, base, actions, Math.max(health - damage, 0)) / 10;
+                            }
+                            if (attackValue > bestValue + EPSILON) {
+                                bestValue = attackValue;
+                                bestChoice = BattleAction.ATTACK.ordinal();
+                            }
+
+                            for (int target = 0; target < CLASSES; target++) {
+                                if (target == c || (mask & 1 << target) == 0) {
+                                    continue;
+                                }
+                                double swapValue = next(value, (mask * CLASSES + target) * STATES, actions, health);
+                                if (swapValue > bestValue + EPSILON) {
+                                    bestValue = swapValue;
+                                    bestChoice = BattleAction.SWAP.ordinal() | target << 2;
+                                }
+                            }
+
+                            if (Math.abs(bestValue - value[base + state]) > EPSILON) {
+                                changed = true;
+                            }
+                            value[base + state] = bestValue;
+                            policy[policyBase + base + state] = (byte) bestChoice;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the value of the state after one more action, which is zero once the
+     * enemy is defeated or all actions are taken.
+     */
+    private static double next(double[] value, int base, int actions, int health) {
+        if (health == 0 || actions + 1 >= Battle.MAX_ACTIONS) {
+            return 0;
+        }
+        return value[base + (actions + 1) * HEALTH_STATES + health];
+    }
+}
@@ -0,0 +1,198 @@
+import java.util.SplittableRandom;
+
+/**
+ * The BattleBatch class runs many battles at once, keeping their state in primitive
+ * arrays instead of {@link Battle} and {@link Creature} objects. Each step applies one
+ * action to every battle that is not over, in a single pass over the arrays.
+ *
+ * <p>The rules are the same as in {@link Battle}: the enemy starts with 50 health, each
+ * battle allows {@link Battle#MAX_ACTIONS} actions, an attack deals 1 to 10 damage
+ * times the player's level with the type chart multiplier applied, and a capture
+ * succeeds when a roll below 100 is under 40 + 50 - health. A battle stops taking
+ * actions once it is over, as the battle screen and the simulator do. Run one battle
+ * with the same random stream as a {@link Battle} and both produce the same result.
+ *
+ * <p>Random numbers are drawn in one pass and the damage is applied in a second,
+ * branch-free pass over the arrays, which the JIT compiler can vectorize.
+ *
+ */
+public class BattleBatch {
+    private final TypeChart typeChart;//The chart of type effectiveness multipliers.
+    private final int size;//The number of battles in the batch.
+    private final int[] enemyHealth;//The current health of each enemy.
+    private final int[] playerLevel;//The evolution level of each player's creature.
+    private final int[] playerType;//The type ordinal of each player's creature.
+    private final int[] enemyType;//The type ordinal of each enemy.
+    private final int[] multiplier;//The type multiplier of each battle, in percent.
+    private final int[] actionsTaken;//The number of actions taken in each battle.
+    private final boolean[] caught;//Whether each enemy has been caught.
+    private final int[] active;//1 for battles taking part in the current step, 0 otherwise.
+    private final int[] rolls;//The random rolls of the current step.
+
+    /**
+     * Constructs a batch of battles using the default type chart.
+     *
+     * @param size The number of battles in the batch.
+     */
+    public BattleBatch(int size) {
+        this(size, TypeChart.getDefault());
+    }
+
+    /**
+     * Constructs a batch of battles.
+     *
+     * @param size      The number of battles in the batch.
+     * @param typeChart The chart of type effectiveness multipliers.
+     */
+    public BattleBatch(int size, TypeChart typeChart) {
+        this.typeChart = typeChart;
+        this.size = size;
+        this.enemyHealth = new int[size];
+        this.playerLevel = new int[size];
+        this.playerType = new int[size];
+        this.enemyType = new int[size];
+        this.multiplier = new int[size];
+        this.actionsTaken = new int[size];
+        this.caught = new boolean[size];
+        this.active = new int[size];
+        this.rolls = new int[size];
+    }
+
+    /**
+     * Starts a new battle in a slot of the batch.
+     *
+     * @param index          The slot of the battle.
+     * @param level          The evolution level of the player's creature.
+     * @param playerCreature The type of the player's creature.
+     * @param enemy          The type of the enemy creature.
+     */
+    public void start(int index, int level, CreatureType playerCreature, CreatureType enemy) {
+        enemyHealth[index] = Battle.ENEMY_STARTING_HEALTH;
+        playerLevel[index] = level;
+        playerType[index] = playerCreature.ordinal();
+        enemyType[index] = enemy.ordinal();
+        multiplier[index] = typeChart.getMultiplier(playerType[index], enemyType[index]);
+        actionsTaken[index] = 0;
+        caught[index] = false;
+    }
+
+    /**
+     * Attacks the enemy in every battle that is not over.
+     *
+     * @param random The random stream for the damage rolls.
+     */
+    public void attackAll(SplittableRandom random) {
+        for (int i = 0; i < size; i++) {
+            int isActive = isBattleOver(i) ? 0 : 1;
+            active[i] = isActive;
+            rolls[i] = isActive == 0 ? 0 : random.nextInt(10) + 1;
+        }
+        for (int i = 0; i < size; i++) {
+            int damage = rolls[i] * playerLevel[i] * multiplier[i] / TypeChart.NEUTRAL;
+            enemyHealth[i] = Math.max(enemyHealth[i] - damage, 0);
+            actionsTaken[i] += active[i];
+        }
+    }
+
+    /**
+     * Tries to capture the enemy in every battle that is not over.
+     *
+     * @param random The random stream for the capture rolls.
+     */
+    public void captureAll(SplittableRandom random) {
+        for (int i = 0; i < size; i++) {
+            int isActive = isBattleOver(i) ? 0 : 1;
+            active[i] = isActive;
+            rolls[i] = isActive == 0 ? Integer.MAX_VALUE : random.nextInt(100);
+        }
+        for (int i = 0; i < size; i++) {
+            int catchChance = 40 + 50 - enemyHealth[i];
+            caught[i] |= rolls[i] < catchChance;
+            actionsTaken[i] += active[i];
+        }
+    }
+
+    /**
+     * Flees from every battle that is not over.
+     */
+    public void fleeAll() {
+        for (int i = 0; i < size; i++) {
+            actionsTaken[i] = Battle.MAX_ACTIONS;
+        }
+    }
+
+    /**
+     * Gets the number of battles in the batch.
+     *
+     * @return The size of the batch.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if a battle is over, with the same rule as {@link Battle#isBattleOver()}.
+     *
+     * @param index The slot of the battle.
+     * @return true if the battle is over, false otherwise.
+     */
+    public boolean isBattleOver(int index) {
+        return enemyHealth[index] <= 0 || actionsTaken[index] >= Battle.MAX_ACTIONS;
+    }
+
+    /**
+     * Gets the enemy's current health in a battle.
+     *
+     * @param index The slot of the battle.
+     * @return The enemy's health.
+     */
+    public int getEnemyHealth(int index) {
+        return enemyHealth[index];
+    }
+
+    /**
+     * Gets the number of actions taken in a battle.
+     *
+     * @param index The slot of the battle.
+     * @return The number of actions taken.
+     */
+    public int getActionsTaken(int index) {
+        return actionsTaken[index];
+    }
+
+    /**
+     * Checks if the enemy has been caught in a battle.
+     *
+     * @param index The slot of the battle.
+     * @return true if the enemy is caught, false otherwise.
+     */
+    public boolean isEnemyCaught(int index) {
+        return caught[index];
+    }
+
+    /**
+     * Counts the battles whose enemy has been caught.
+     *
+     * @return The number of captures.
+     */
+    public int countCaught() {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            count += caught[i] ? 1 : 0;
+        }
+        return count;
+    }
+
+    /**
+     * Counts the battles whose enemy has been defeated.
+     *
+     * @return The number of wins.
+     */
+    public int countDefeated() {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            count += enemyHealth[i] <= 0 ? 1 : 0;
+        }
+        return count;
+    }
+}
@@ -5,6 +5,7 @@ import java.awt.event.ActionListener;
 import java.awt.image.BufferedImage;
 import java.io.InputStream;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -15,16 +16,27 @@ import java.util.List;
  *
  */
 public class BattleGUI extends JFrame {
+    private static final BattleOdds ODDS = new BattleOdds(BattlePolicy.ATTACK_THEN_CATCH);//The exact odds shown to the player.
+    private static final Color RECOMMENDED_COLOR = new Color(0, 128, 0);//The text color of the recommended action's button.
     private final Battle battle;//The battle instance that manages the current battle state.
     private final Inventory playerInventory; // The player's inventory containing creatures.
     private final JLabel playerCreatureLabel;//JLabel displaying information about the player's creature.
     private final JLabel enemyCreatureLabel;//JLabel displaying information about the enemy creature.
     private final JLabel battleInfoLabel;//JLabel displaying battle-related information.
+    private final JLabel oddsLabel;//JLabel displaying the odds of each battle outcome.
     private final JProgressBar playerHealthBar;//JProgressBar representing the health of the player's creature.
     private final JProgressBar enemyHealthBar;//JProgressBar representing the health of the enemy creature.
     private final JLabel enemyImageLabel;// JLabel displaying the image of the enemy creature.
     private final JLabel playerImageLabel;//JLabel displaying the image of the player's creature.
     private JComboBox<Creature> creatureSwapDropdown;//JComboBox for selecting a creature to swap during battle.
+    private final int[] classCounts = new int[Integer.SIZE];//The number of creatures in the inventory of each class; used on the event dispatch thread only.
+    private int inventoryMask;//The classes of the creatures in the inventory, used to look up recommendations.
+    private final InventoryListener classTracker = new ClassTracker();//Keeps the class counts in step with the inventory.
+    private JButton attackButton;//The button for attacking.
+    private JButton catchButton;//The button for catching.
+    private JButton fleeButton;//The button for fleeing.
+    private JButton swapButton;//The button for confirming a swap.
+    private final InventoryComboBoxModel swapModel;//The creatures that can be swapped in, following the inventory.
 
     /**
      * Constructs a BattleGUI object for conducting a battle.
@@ -39,12 +51,16 @@ public class BattleGUI extends JFrame {
         this.playerCreatureLabel = new JLabel();
         this.enemyCreatureLabel = new JLabel();
         this.battleInfoLabel = new JLabel();
+        this.oddsLabel = new JLabel();
         this.playerHealthBar = new JProgressBar(0, playerCreature.getMaxHealth());
         this.enemyHealthBar = new JProgressBar(0, enemy.getMaxHealth());
         this.enemyImageLabel = new JLabel();
         this.playerImageLabel = new JLabel();
-        creatureSwapDropdown = new JComboBox<>();
+        this.swapModel = new InventoryComboBoxModel(playerInventory, creature -> true, true);
+        creatureSwapDropdown = new JComboBox<>(swapModel);
+        playerInventory.addListener(classTracker);
         initializeUI();
+        BattleAdvisor.getShared().thenAccept(advisor -> SwingUtilities.invokeLater(this::updateRecommendation));
     }
 
     /**
@@ -54,7 +70,6 @@ public class BattleGUI extends JFrame {
         setTitle("Battle");
         setLayout(new BorderLayout());
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
-        updateCreatureSwapDropdown();
         // Setup health bars
         playerHealthBar.setStringPainted(true);
         enemyHealthBar.setStringPainted(true);
@@ -63,9 +78,12 @@ public class BattleGUI extends JFrame {
 
         // Button panel ito
         JPanel buttonPanel = new JPanel(new GridLayout(1, 4));
-        buttonPanel.add(createActionButton("Attack", e -> battle.attack()));
-        buttonPanel.add(createActionButton("Catch", e -> battle.tryCapture()));
-        buttonPanel.add(createActionButton("Flee", e -> battle.flee()));
+        attackButton = createActionButton("Attack", e -> battle.attack());
+        catchButton = createActionButton("Catch", e -> battle.tryCapture());
+        fleeButton = createActionButton("Flee", e -> battle.flee());
+        buttonPanel.add(attackButton);
+        buttonPanel.add(catchButton);
+        buttonPanel.add(fleeButton);
 
         // Info panel ito
         JPanel infoPanel = new JPanel();
@@ -77,16 +95,19 @@ public class BattleGUI extends JFrame {
         infoPanel.add(enemyHealthBar);
         infoPanel.add(enemyImageLabel);
         infoPanel.add(battleInfoLabel);
+        infoPanel.add(oddsLabel);
 
         JPanel swapPanel = new JPanel();
         swapPanel.add(new JLabel("Swap to:"));
         swapPanel.add(creatureSwapDropdown);
-        swapPanel.add(createActionButton("Confirm Swap", e -> confirmSwap()));
+        swapButton = createActionButton("Confirm Swap", e -> confirmSwap());
+        swapPanel.add(swapButton);
 
         add(swapPanel, BorderLayout.NORTH);
         add(infoPanel, BorderLayout.CENTER);
         add(buttonPanel, BorderLayout.SOUTH);
 
+        updateRecommendation();
         pack();
         setLocationRelativeTo(null);
         setVisible(true);
@@ -148,18 +169,101 @@ public class BattleGUI extends JFrame {
         if (battle.getLastDamageDealt() > 0) {
             battleInfoLabel.setText("Last Damage Dealt: " + battle.getLastDamageDealt());
         }
+
+        BattleOdds.Odds odds = ODDS.getOdds(battle);
+        oddsLabel.setText(String.format("Odds if you attack and catch last: Win %.0f%%, Catch %.0f%%, Flee %.0f%%",
+                odds.getWin() * 100, odds.getCapture() * 100, odds.getFlee() * 100));
+        updateRecommendation();
     }
 
     /**
-     * Updates the creature selection dropdown with available creatures for swapping.
+     * Highlights the button of the action with the best chance of capturing the enemy.
+     * Nothing is highlighted until the {@link BattleAdvisor} has finished its precomputation.
+     */
+    public void updateRecommendation() {
+        BattleAdvisor advisor = BattleAdvisor.getShared().getNow(null);
+        if (advisor == null || attackButton == null || battle.isBattleOver()) {
+            return;
+        }
+        BattleAction action = advisor.recommend(battle, inventoryMask);
+        attackButton.setForeground(action == BattleAction.ATTACK ? RECOMMENDED_COLOR : null);
+        catchButton.setForeground(action == BattleAction.CATCH ? RECOMMENDED_COLOR : null);
+        fleeButton.setForeground(action == BattleAction.FLEE ? RECOMMENDED_COLOR : null);
+        swapButton.setForeground(action == BattleAction.SWAP ? RECOMMENDED_COLOR : null);
+        if (action == BattleAction.SWAP) {
+            int swapClass = advisor.recommendSwapClass(battle, inventoryMask);
+            for (int i = 0; i < creatureSwapDropdown.getItemCount(); i++) {
+                if (BattleAdvisor.classOf(creatureSwapDropdown.getItemAt(i)) == swapClass) {
+                    creatureSwapDropdown.setSelectedIndex(i);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Closes the window and stops following the inventory.
+     */
+    @Override
+    public void dispose() {
+        swapModel.detach();
+        playerInventory.removeListener(classTracker);
+        super.dispose();
+    }
+
+    /**
+     * Counts creatures entering or leaving the inventory by class and updates the
+     * recommendation when the set of classes changes. Runs on the event dispatch thread.
+     *
+     * @param creatures The creatures.
+     * @param delta     1 for creatures that entered the inventory, -1 for creatures that left it.
      */
-    public void updateCreatureSwapDropdown() {
-        creatureSwapDropdown.removeAllItems();
-        for (Creature creature : playerInventory.getCreatures()) {
-            if (!creature.equals(battle.getPlayerCreature())) {
-                creatureSwapDropdown.addItem(creature);
+    private void countClasses(List<Creature> creatures, int delta) {
+        for (Creature creature : creatures) {
+            classCounts[BattleAdvisor.classOf(creature)] += delta;
+        }
+        int mask = 0;
+        for (int c = 0; c < classCounts.length; c++) {
+            if (classCounts[c] > 0) {
+                mask |= 1 << c;
             }
         }
+        if (mask != inventoryMask) {
+            inventoryMask = mask;
+            updateRecommendation();
+        }
+    }
+
+    /**
+     * The ClassTracker class hands the inventory's changes over to the event dispatch
+     * thread, so captures and evolutions during the battle change the recommendations.
+     */
+    private class ClassTracker implements InventoryListener {
+        @Override
+        public void creatureAdded(Creature creature) {
+            SwingUtilities.invokeLater(() -> countClasses(List.of(creature), 1));
+        }
+
+        @Override
+        public void creatureRemoved(Creature creature) {
+            SwingUtilities.invokeLater(() -> countClasses(List.of(creature), -1));
+        }
+
+        @Override
+        public void creaturesEvolved(List<Creature> consumed, List<Creature> evolved) {
+            SwingUtilities.invokeLater(() -> {
+                countClasses(consumed, -1);
+                countClasses(evolved, 1);
+            });
+        }
+
+        @Override
+        public void creaturesReplaced(List<Creature> creatures, Creature active) {
+            SwingUtilities.invokeLater(() -> {
+                Arrays.fill(classCounts, 0);
+                countClasses(creatures, 1);
+            });
+        }
     }
 
     /**
@@ -0,0 +1,253 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The BattleJournal class records every action taken in battles as fixed-width binary
+ * records, for offline analysis. Records are collected in a reusable direct buffer and
+ * written to the journal file in batches. A journal can be shared by several battles
+ * and threads.
+ *
+ * <p>Each record is {@value #RECORD_SIZE} bytes, little-endian:
+ * battle ID (long), action (byte, the {@link BattleAction} ordinal), flags (byte),
+ * actions taken (byte), player level (byte), roll (int), value (int) and enemy health (int).
+ * For an attack the roll is the base damage and the value is the damage dealt; for a
+ * capture the roll is the capture roll and the value is the catch chance. Swaps and
+ * flees have a roll and value of -1.
+ *
+ */
+public class BattleJournal implements Closeable {
+    public static final int RECORD_SIZE = 24;//The size of one record in bytes.
+    public static final int FLAG_TYPE_ADVANTAGE = 1;//Set when the player's creature had a type advantage.
+    public static final int FLAG_CAUGHT = 2;//Set when a capture succeeded.
+    private static final int RECORDS_PER_BATCH = 4096;//The number of records buffered before they are written.
+    private static final BattleAction[] ACTIONS = BattleAction.values();
+
+    private final FileChannel channel;//The channel of the journal file.
+    private final ByteBuffer buffer;//The buffer collecting records until the next write.
+
+    /**
+     * Opens a journal, appending to the file if it already exists.
+     *
+     * @param path The path of the journal file.
+     * @throws IOException if the file cannot be opened.
+     */
+    public BattleJournal(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.buffer = ByteBuffer.allocateDirect(RECORD_SIZE * RECORDS_PER_BATCH).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Records one battle action. The record is written to the file once the batch is full
+     * or the journal is flushed.
+     *
+     * @param battleId     The ID of the battle.
+     * @param action       The action taken.
+     * @param flags        The flags of the action, a combination of the FLAG constants.
+     * @param actionsTaken The number of actions taken after the action.
+     * @param playerLevel  The evolution level of the player's creature after the action.
+     * @param roll         The random roll of the action, or -1 if it has none.
+     * @param value        The damage dealt or catch chance, or -1 if the action has none.
+     * @param enemyHealth  The enemy's health after the action.
+     */
+    public synchronized void record(long battleId, BattleAction action, int flags, int actionsTaken,
+                                    int playerLevel, int roll, int value, int enemyHealth) {
+        if (buffer.remaining() < RECORD_SIZE) {
+            writeBatch();
+        }
+        buffer.putLong(battleId)
+                .put((byte) action.ordinal())
+                .put((byte) flags)
+                .put((byte) actionsTaken)
+                .put((byte) playerLevel)
+                .putInt(roll)
+                .putInt(value)
+                .putInt(enemyHealth);
+    }
+
+    /**
+     * Writes all buffered records to the journal file.
+     */
+    public synchronized void flush() {
+        writeBatch();
+    }
+
+    /**
+     * Flushes the buffered records and closes the journal file.
+     *
+     * @throws IOException if the file cannot be closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        writeBatch();
+        channel.close();
+    }
+
+    private void writeBatch() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    /**
+     * The Reader class streams the records of a journal file one at a time. Only one
+     * chunk of the file is held in memory, so journals of any size can be scanned.
+     * The reader is a cursor: {@link #next()} moves to the following record and the
+     * getters read the fields of the current one without allocating.
+     */
+    public static class Reader implements Closeable {
+        private static final int CHUNK_RECORDS = 1 << 14;//The number of records read from the file at once.
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private int position = -RECORD_SIZE;//The offset of the current record in the buffer.
+
+        /**
+         * Opens a journal file for reading.
+         *
+         * @param path The path of the journal file.
+         * @throws IOException if the file cannot be opened.
+         */
+        public Reader(Path path) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            this.buffer = ByteBuffer.allocateDirect(RECORD_SIZE * CHUNK_RECORDS).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.limit(0);
+        }
+
+        /**
+         * Moves to the next record. A partial record at the end of the file, left by a
+         * crash during a write, is ignored.
+         *
+         * @return true if there is a next record, false at the end of the journal.
+         * @throws IOException if the file cannot be read.
+         */
+        public boolean next() throws IOException {
+            position += RECORD_SIZE;
+            if (buffer.limit() - position >= RECORD_SIZE) {
+                return true;
+            }
+            buffer.position(Math.min(position, buffer.limit()));
+            buffer.compact();
+            while (buffer.position() < RECORD_SIZE && channel.read(buffer) >= 0) {
+                if (!buffer.hasRemaining()) {
+                    break;
+                }
+            }
+            buffer.flip();
+            position = 0;
+            return buffer.limit() >= RECORD_SIZE;
+        }
+
+        /**
+         * Gets the ID of the battle of the current record.
+         *
+         * @return The battle ID.
+         */
+        public long getBattleId() {
+            return buffer.getLong(position);
+        }
+
+        /**
+         * Gets the action of the current record.
+         *
+         * @return The action taken.
+         */
+        public BattleAction getAction() {
+            return ACTIONS[buffer.get(position + 8)];
+        }
+
+        /**
+         * Gets the flags of the current record.
+         *
+         * @return The flags, a combination of the FLAG constants.
+         */
+        public int getFlags() {
+            return buffer.get(position + 9);
+        }
+
+        /**
+         * Checks if the player's creature had a type advantage in the current record.
+         *
+         * @return true if there was a type advantage, false otherwise.
+         */
+        public boolean hasTypeAdvantage() {
+            return (getFlags() & FLAG_TYPE_ADVANTAGE) != 0;
+        }
+
+        /**
+         * Checks if the capture in the current record succeeded.
+         *
+         * @return true if the enemy was caught, false otherwise.
+         */
+        public boolean isCaught() {
+            return (getFlags() & FLAG_CAUGHT) != 0;
+        }
+
+        /**
+         * Gets the number of actions taken after the action of the current record.
+         *
+         * @return The number of actions taken.
+         */
+        public int getActionsTaken() {
+            return buffer.get(position + 10);
+        }
+
+        /**
+         * Gets the evolution level of the player's creature after the action of the current record.
+         *
+         * @return The player's creature level.
+         */
+        public int getPlayerLevel() {
+            return buffer.get(position + 11);
+        }
+
+        /**
+         * Gets the random roll of the current record.
+         *
+         * @return The base damage or capture roll, or -1 if the action has none.
+         */
+        public int getRoll() {
+            return buffer.getInt(position + 12);
+        }
+
+        /**
+         * Gets the value of the current record.
+         *
+         * @return The damage dealt or catch chance, or -1 if the action has none.
+         */
+        public int getValue() {
+            return buffer.getInt(position + 16);
+        }
+
+        /**
+         * Gets the enemy's health after the action of the current record.
+         *
+         * @return The enemy's health.
+         */
+        public int getEnemyHealth() {
+            return buffer.getInt(position + 20);
+        }
+
+        /**
+         * Closes the journal file.
+         *
+         * @throws IOException if the file cannot be closed.
+         */
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The BattleOdds class computes the exact probabilities of winning, capturing and
+ * fleeing in a battle where the player follows a {@link BattlePolicy}. The battle
+ * rules are small enough to solve by dynamic programming over every state of enemy
+ * health and actions taken, so no battles need to be sampled.
+ *
+ * <p>The tables for a player level and type multiplier are solved once, the first
+ * time they are asked for, and cached, so later lookups only read an array. A policy
+ * choosing to swap is treated as leaving the battle, as the odds do not depend on
+ * the inventory.
+ *
+ */
+public class BattleOdds {
+    private static final int HEALTH_STATES = Battle.ENEMY_STARTING_HEALTH + 1;//Enemy health from 0 to the starting health.
+    private static final int ACTION_STATES = Battle.MAX_ACTIONS + 1;//Actions taken from 0 to the maximum.
+
+    private final BattlePolicy policy;//The policy the player follows.
+    private final ConcurrentHashMap<Integer, Table> tables = new ConcurrentHashMap<>();//The solved tables, keyed by level and multiplier.
+
+    /**
+     * Constructs a solver for battles played with the given policy.
+     *
+     * @param policy The policy the player follows.
+     */
+    public BattleOdds(BattlePolicy policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * Gets the odds of a battle in its current state.
+     *
+     * @param battle The battle.
+     * @return The odds of each outcome from the current state.
+     */
+    public Odds getOdds(Battle battle) {
+        Creature player = battle.getPlayerCreature();
+        Creature enemy = battle.getEnemy();
+        if (battle.isEnemyCaught()) {
+            return new Odds(0, 1, 0);
+        }
+        int multiplier = TypeChart.getDefault().getMultiplierForMask(player.getType().ordinal(), enemy.getSpecies().getTypeMask());
+        return getOdds(enemy.getHealth(), battle.getActionsTaken(), player.getEvolutionLevel(), multiplier);
+    }
+
+    /**
+     * Gets the odds of a battle state in which the enemy has not been caught yet.
+     *
+     * @param enemyHealth  The enemy's current health.
+     * @param actionsTaken The number of actions taken so far.
+     * @param playerLevel  The evolution level of the player's creature.
+     * @param multiplier   The type multiplier of the player's creature against the enemy, in percent.
+     * @return The odds of each outcome from the state.
+     */
+    public Odds getOdds(int enemyHealth, int actionsTaken, int playerLevel, int multiplier) {
+        Table table = tables.computeIfAbsent(playerLevel * 10_000 + multiplier,
+                key -> solve(playerLevel, multiplier));
+        int health = Math.max(0, Math.min(enemyHealth, Battle.ENEMY_STARTING_HEALTH));
+        int state = stateIndex(health, Math.min(actionsTaken, Battle.MAX_ACTIONS));
+        return new Odds(table.win[state], table.capture[state], Math.max(0, 1 - table.win[state] - table.capture[state]));
+    }
+
+    /**
+     * Solves every state for one player level and type multiplier, starting from the
+     * states with all actions taken and working back to the start of the battle.
+     *
+     * @param playerLevel The evolution level of the player's creature.
+     * @param multiplier  The type multiplier, in percent.
+     * @return The solved table.
+     */
+    private Table solve(int playerLevel, int multiplier) {
+        Table table = new Table();
+        boolean typeAdvantage = multiplier > TypeChart.NEUTRAL;
+        for (int actions = Battle.MAX_ACTIONS; actions >= 0; actions--) {
+            for (int health = 0; health < HEALTH_STATES; health++) {
+                int state = stateIndex(health, actions);
+                if (health == 0) {
+                    table.win[state] = 1;
+                    continue;
+                }
+                if (actions == Battle.MAX_ACTIONS) {
+                    continue;
+                }
+                switch (policy.chooseAction(health, actions, playerLevel, typeAdvantage)) {
+                    case ATTACK:
+                        for (int roll = 1; roll <= 10; roll++) {
+                            int damage = roll * playerLevel * multiplier / TypeChart.NEUTRAL;
+                            int next = stateIndex(Math.max(health - damage, 0), actions + 1);
+                            table.win[state] += table.win[next] / 10;
+                            table.capture[state] += table.capture[next] / 10;
+                        }
+                        break;
+                    case CATCH:
+                        double catchChance = Math.max(0, Math.min(100, 40 + 50 - health)) / 100.0;
+                        int next = stateIndex(health, actions + 1);
+                        table.win[state] = (1 - catchChance) * table.win[next];
+                        table.capture[state] = catchChance + (1 - catchChance) * table.capture[next];
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+        return table;
+    }
+
+    private static int stateIndex(int health, int actions) {
+        return actions * HEALTH_STATES + health;
+    }
+
+    /**
+     * The win and capture probabilities of every state for one player level and type multiplier.
+     */
+    private static class Table {
+        private final double[] win = new double[HEALTH_STATES * ACTION_STATES];
+        private final double[] capture = new double[HEALTH_STATES * ACTION_STATES];
+    }
+
+    /**
+     * The Odds class holds the probabilities of the three ways a battle can end.
+     */
+    public static class Odds {
+        private final double win;
+        private final double capture;
+        private final double flee;
+
+        Odds(double win, double capture, double flee) {
+            this.win = win;
+            this.capture = capture;
+            this.flee = flee;
+        }
+
+        /**
+         * Gets the probability that the enemy is defeated.
+         *
+         * @return The win probability, between 0 and 1.
+         */
+        public double getWin() {
+            return win;
+        }
+
+        /**
+         * Gets the probability that the enemy is captured.
+         *
+         * @return The capture probability, between 0 and 1.
+         */
+        public double getCapture() {
+            return capture;
+        }
+
+        /**
+         * Gets the probability that the battle ends with neither a win nor a capture.
+         *
+         * @return The flee probability, between 0 and 1.
+         */
+        public double getFlee() {
+            return flee;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/**
+ * The BattlePolicy interface decides which action to take during a battle based
+ * on the current battle state. Policies are used to drive battles without a user
+ * interface, for example by the {@link BattleSimulator}.
+ */
+public interface BattlePolicy {
+
+    /**
+     * Always attacks until the battle is over.
+     */
+    BattlePolicy ALWAYS_ATTACK = (enemyHealth, actionsTaken, playerLevel, typeAdvantage) -> BattleAction.ATTACK;
+
+    /**
+     * Always tries to capture the enemy.
+     */
+    BattlePolicy ALWAYS_CATCH = (enemyHealth, actionsTaken, playerLevel, typeAdvantage) -> BattleAction.CATCH;
+
+    /**
+     * Attacks to weaken the enemy and tries to capture it with the last action.
+     */
+    BattlePolicy ATTACK_THEN_CATCH = (enemyHealth, actionsTaken, playerLevel, typeAdvantage) ->
+            actionsTaken == Battle.MAX_ACTIONS - 1 ? BattleAction.CATCH : BattleAction.ATTACK;
+
+    /**
+     * Swaps to a creature with a type advantage first, then attacks and tries to capture it with the last action.
+     */
+    BattlePolicy COUNTER_THEN_CATCH = (enemyHealth, actionsTaken, playerLevel, typeAdvantage) -> {
+        if (actionsTaken == 0 && !typeAdvantage) {
+            return BattleAction.SWAP;
+        }
+        return actionsTaken == Battle.MAX_ACTIONS - 1 ? BattleAction.CATCH : BattleAction.ATTACK;
+    };
+
+    /**
+     * Flees immediately.
+     */
+    BattlePolicy FLEE = (enemyHealth, actionsTaken, playerLevel, typeAdvantage) -> BattleAction.FLEE;
+
+    /**
+     * Chooses the next action to take in the battle.
+     *
+     * @param enemyHealth   The current health of the enemy creature.
+     * @param actionsTaken  The number of actions already taken in the battle.
+     * @param playerLevel   The evolution level of the player's active creature.
+     * @param typeAdvantage Whether the player's active creature has a type advantage over the enemy.
+     * @return The action to take.
+     */
+    BattleAction chooseAction(int enemyHealth, int actionsTaken, int playerLevel, boolean typeAdvantage);
+
+    /**
+     * Gets one of the standard policies by name.
+     *
+     * @param name The name of the policy, e.g. "ATTACK_THEN_CATCH".
+     * @return The policy with the given name.
+     * @throws IllegalArgumentException if no policy has the given name.
+     */
+    static BattlePolicy named(String name) {
+        switch (name) {
+            case "ALWAYS_ATTACK":
+                return ALWAYS_ATTACK;
+            case "ALWAYS_CATCH":
+                return ALWAYS_CATCH;
+            case "ATTACK_THEN_CATCH":
+                return ATTACK_THEN_CATCH;
+            case "COUNTER_THEN_CATCH":
+                return COUNTER_THEN_CATCH;
+            case "FLEE":
+                return FLEE;
+            default:
+                throw new IllegalArgumentException("Unknown battle policy: " + name);
+        }
+    }
+}
@@ -0,0 +1,276 @@
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The BattleSessionManager class hosts many battles at once. Each session owns its
+ * own copies of the creatures, its own {@link Inventory} and its own random stream,
+ * so no mutable state is shared between sessions. Commands sent to a session are
+ * queued in its mailbox and run one at a time, in order, by a task on the manager's
+ * executor, so a session never needs locks.
+ *
+ * <p>On runtimes with virtual threads, each session's mailbox is drained on its own
+ * virtual thread. Older runtimes use a work-stealing pool instead.
+ *
+ */
+public class BattleSessionManager implements AutoCloseable {
+    private static final int COMMANDS_PER_RUN = 16;//The commands a session runs before yielding to other sessions.
+
+    private final ExecutorService executor;//The executor draining the session mailboxes.
+    private final Map<Long, Session> sessions = new ConcurrentHashMap<>();//The open sessions, by ID.
+    private final AtomicLong nextSessionId = new AtomicLong();//The ID of the next session.
+
+    /**
+     * Constructs a session manager that uses virtual threads when they are available.
+     */
+    public BattleSessionManager() {
+        this(defaultExecutor());
+    }
+
+    /**
+     * Constructs a session manager that drains mailboxes on the given executor.
+     *
+     * @param executor The executor running the sessions.
+     */
+    public BattleSessionManager(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    private static ExecutorService defaultExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            return Executors.newWorkStealingPool();
+        }
+    }
+
+    /**
+     * Opens a battle session. The creatures are copied into the session, so the
+     * session never changes the given objects.
+     *
+     * @param team  The player's creatures; the first one starts the battle.
+     * @param enemy The enemy creature.
+     * @return The ID of the new session.
+     */
+    public long openSession(List<Creature> team, Creature enemy) {
+        long id = nextSessionId.getAndIncrement();
+        sessions.put(id, new Session(id, team, enemy));
+        return id;
+    }
+
+    /**
+     * Sends a battle action to a session. The action runs after every action sent
+     * to the session before it.
+     *
+     * @param sessionId The ID of the session.
+     * @param action    The action to take. A swap switches to the next creature of the team.
+     * @return A future completed with the state of the battle after the action.
+     * @throws IllegalArgumentException if the session does not exist.
+     */
+    public CompletableFuture<BattleState> send(long sessionId, BattleAction action) {
+        Session session = sessions.get(sessionId);
+        if (session == null) {
+            throw new IllegalArgumentException("No session with ID " + sessionId);
+        }
+        Command command = new Command(action);
+        session.mailbox.add(command);
+        session.schedule();
+        return command.result;
+    }
+
+    /**
+     * Closes a session. Commands already sent to it still run.
+     *
+     * @param sessionId The ID of the session.
+     */
+    public void closeSession(long sessionId) {
+        sessions.remove(sessionId);
+    }
+
+    /**
+     * Gets the number of open sessions.
+     *
+     * @return The number of sessions.
+     */
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Closes all sessions and shuts down the executor.
+     */
+    @Override
+    public void close() {
+        sessions.clear();
+        executor.shutdown();
+    }
+
+    /**
+     * A command waiting in a session's mailbox.
+     */
+    private static class Command {
+        private final BattleAction action;
+        private final CompletableFuture<BattleState> result = new CompletableFuture<>();
+
+        Command(BattleAction action) {
+            this.action = action;
+        }
+    }
+
+    /**
+     * A battle session. Its fields are only touched by the task draining its mailbox,
+     * and at most one such task runs at a time.
+     */
+    private class Session implements Runnable {
+        private final Queue<Command> mailbox = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final Inventory inventory = new Inventory();
+        private final Creature[] team;
+        private final Battle battle;
+
+        Session(long id, List<Creature> team, Creature enemy) {
+            this.team = new Creature[team.size()];
+            for (int i = 0; i < this.team.length; i++) {
+                this.team[i] = copyOf(team.get(i));
+                inventory.addCreature(this.team[i]);
+            }
+            this.battle = new Battle(this.team[0], copyOf(enemy), inventory, RandomService.stream(id));
+        }
+
+        void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            for (int i = 0; i < COMMANDS_PER_RUN; i++) {
+                Command command = mailbox.poll();
+                if (command == null) {
+                    break;
+                }
+                try {
+                    apply(command.action);
+                    command.result.complete(new BattleState(battle));
+                } catch (RuntimeException ex) {
+                    command.result.completeExceptionally(ex);
+                }
+            }
+            scheduled.set(false);
+            if (!mailbox.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void apply(BattleAction action) {
+            switch (action) {
+                case ATTACK:
+                    battle.attack();
+                    break;
+                case CATCH:
+                    battle.tryCapture();
+                    break;
+                case SWAP:
+                    for (int i = 0; i < team.length; i++) {
+                        if (team[i] == battle.getPlayerCreature()) {
+                            battle.swap(team[(i + 1) % team.length]);
+                            break;
+                        }
+                    }
+                    break;
+                case FLEE:
+                    battle.flee();
+                    break;
+            }
+        }
+    }
+
+    private static Creature copyOf(Creature creature) {
+        Creature copy = new Creature(creature.getSpecies());
+        copy.setHealth(creature.getHealth());
+        return copy;
+    }
+
+    /**
+     * The BattleState class is an immutable view of a session's battle after an action.
+     */
+    public static class BattleState {
+        private final String playerCreature;
+        private final int enemyHealth;
+        private final int actionsTaken;
+        private final int lastDamageDealt;
+        private final boolean enemyCaught;
+        private final boolean battleOver;
+
+        BattleState(Battle battle) {
+            this.playerCreature = battle.getPlayerCreature().getName();
+            this.enemyHealth = battle.getEnemy().getHealth();
+            this.actionsTaken = battle.getActionsTaken();
+            this.lastDamageDealt = battle.getLastDamageDealt();
+            this.enemyCaught = battle.isEnemyCaught();
+            this.battleOver = battle.isBattleOver();
+        }
+
+        /**
+         * Gets the name of the player's active creature.
+         *
+         * @return The name of the active creature.
+         */
+        public String getPlayerCreature() {
+            return playerCreature;
+        }
+
+        /**
+         * Gets the enemy's health.
+         *
+         * @return The enemy's health.
+         */
+        public int getEnemyHealth() {
+            return enemyHealth;
+        }
+
+        /**
+         * Gets the number of actions taken.
+         *
+         * @return The number of actions taken.
+         */
+        public int getActionsTaken() {
+            return actionsTaken;
+        }
+
+        /**
+         * Gets the damage dealt in the last attack.
+         *
+         * @return The damage dealt in the last attack.
+         */
+        public int getLastDamageDealt() {
+            return lastDamageDealt;
+        }
+
+        /**
+         * Checks if the enemy has been caught.
+         *
+         * @return true if the enemy is caught, false otherwise.
+         */
+        public boolean isEnemyCaught() {
+            return enemyCaught;
+        }
+
+        /**
+         * Checks if the battle is over.
+         *
+         * @return true if the battle is over, false otherwise.
+         */
+        public boolean isBattleOver() {
+            return battleOver;
+        }
+    }
+}
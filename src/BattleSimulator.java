@@ -0,0 +1,313 @@
+import java.io.PrintStream;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The BattleSimulator class runs battles without a user interface to measure how
+ * matchups play out. Every species from EL1, EL2 and EL3 fights every other species,
+ * with the player's actions chosen by a {@link BattlePolicy}. Battles are spread
+ * across all cores using a fork-join pool. Each batch of battles draws from its own
+ * {@link RandomService} stream, so a seeded run gives the same report every time.
+ *
+ */
+public class BattleSimulator {
+    public static final int SPECIES_TOTAL = EL1Creatures.SPECIES_COUNT + EL2Creatures.SPECIES_COUNT + EL3Creatures.SPECIES_COUNT;//The number of species across all levels.
+    private static final int MATCHUPS = SPECIES_TOTAL * SPECIES_TOTAL;//The number of player and enemy species pairs.
+    private static final int BATTLES_PER_TASK = 1024;//The number of battles run by one fork-join task.
+
+    private final BattlePolicy policy;//The policy choosing the player's actions.
+    private final int battlesPerMatchup;//The number of battles simulated for each matchup.
+    private final ForkJoinPool pool;//The pool running the simulation tasks.
+
+    /**
+     * Constructs a BattleSimulator that runs on the common fork-join pool.
+     *
+     * @param policy            The policy choosing the player's actions.
+     * @param battlesPerMatchup The number of battles simulated for each matchup.
+     */
+    public BattleSimulator(BattlePolicy policy, int battlesPerMatchup) {
+        this(policy, battlesPerMatchup, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a BattleSimulator that runs on the given fork-join pool.
+     *
+     * @param policy            The policy choosing the player's actions.
+     * @param battlesPerMatchup The number of battles simulated for each matchup.
+     * @param pool              The pool running the simulation tasks.
+     */
+    public BattleSimulator(BattlePolicy policy, int battlesPerMatchup, ForkJoinPool pool) {
+        if (battlesPerMatchup <= 0) {
+            throw new IllegalArgumentException("battlesPerMatchup must be positive");
+        }
+        this.policy = policy;
+        this.battlesPerMatchup = battlesPerMatchup;
+        this.pool = pool;
+    }
+
+    /**
+     * Runs the simulation for every matchup and collects the results.
+     *
+     * @return The report with the outcome counts of every matchup.
+     */
+    public Report run() {
+        Report report = new Report(battlesPerMatchup);
+        int tasksPerMatchup = (battlesPerMatchup + BATTLES_PER_TASK - 1) / BATTLES_PER_TASK;
+        long start = System.nanoTime();
+        pool.invoke(new SimulationTask(report, tasksPerMatchup, 0, MATCHUPS * tasksPerMatchup));
+        report.elapsedNanos = System.nanoTime() - start;
+        return report;
+    }
+
+    /**
+     * Creates a creature from its index across all levels. Indexes 0 to 8 are EL1,
+     * 9 to 17 are EL2 and 18 to 26 are EL3.
+     *
+     * @param species The index of the species.
+     * @return A new creature of the species.
+     */
+    public static Creature createCreature(int species) {
+        int slot = species % EL1Creatures.SPECIES_COUNT + 1;
+        switch (species / EL1Creatures.SPECIES_COUNT) {
+            case 0:
+                return EL1Creatures.createCreature(slot);
+            case 1:
+                return EL2Creatures.createCreature(slot);
+            case 2:
+                return EL3Creatures.createCreature(slot);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Runs a number of battles for one matchup and records their outcomes.
+     *
+     * @param report  The report collecting the outcomes.
+     * @param matchup The index of the matchup.
+     * @param count   The number of battles to run.
+     * @param random  The random stream of the batch.
+     */
+    private void runBattles(Report report, int matchup, int count, SplittableRandom random) {
+        int playerSpecies = matchup / SPECIES_TOTAL;
+        int enemySpecies = matchup % SPECIES_TOTAL;
+        int wins = 0;
+        int captures = 0;
+        int flees = 0;
+        for (int i = 0; i < count; i++) {
+            Creature player = createCreature(playerSpecies);
+            Creature enemy = createCreature(enemySpecies);
+            Battle battle = new Battle(player, enemy, random);
+            Creature reserve = createCounterCreature(battle, player.getEvolutionLevel());
+            fight(battle, player, reserve);
+            if (battle.isEnemyCaught()) {
+                captures++;
+            } else if (enemy.getHealth() <= 0) {
+                wins++;
+            } else {
+                flees++;
+            }
+        }
+        report.record(matchup, wins, captures, flees);
+    }
+
+    /**
+     * Creates the reserve creature the player can swap to: the first species of the
+     * given level whose type has an advantage over the enemy.
+     *
+     * @param battle The battle the reserve is created for.
+     * @param level  The evolution level of the reserve.
+     * @return The reserve creature, or null if no type has an advantage.
+     */
+    private Creature createCounterCreature(Battle battle, int level) {
+        CreatureType enemyType = battle.getEnemy().getType();
+        int first = (level - 1) * EL1Creatures.SPECIES_COUNT;
+        for (int species = first; species < first + EL1Creatures.SPECIES_COUNT; species++) {
+            Creature candidate = createCreature(species);
+            if (battle.isTypeAdvantage(candidate.getType(), enemyType)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Plays a battle to the end using the policy. An action the battle rejects,
+     * such as a swap without a reserve, ends the battle as a flee.
+     *
+     * @param battle  The battle to play.
+     * @param player  The player's starting creature.
+     * @param reserve The player's reserve creature, or null if there is none.
+     */
+    private void fight(Battle battle, Creature player, Creature reserve) {
+        Creature enemy = battle.getEnemy();
+        while (!battle.isBattleOver()) {
+            Creature active = battle.getPlayerCreature();
+            int actionsTaken = battle.getActionsTaken();
+            BattleAction action = policy.chooseAction(enemy.getHealth(), actionsTaken,
+                    active.getEvolutionLevel(), battle.isTypeAdvantage(active.getType(), enemy.getType()));
+            switch (action) {
+                case ATTACK:
+                    battle.attack();
+                    break;
+                case CATCH:
+                    battle.tryCapture();
+                    break;
+                case SWAP:
+                    if (reserve != null) {
+                        battle.swap(active == player ? reserve : player);
+                    }
+                    break;
+                case FLEE:
+                    battle.flee();
+                    break;
+            }
+            if (battle.getActionsTaken() == actionsTaken) {
+                battle.flee();
+            }
+        }
+    }
+
+    /**
+     * The fork-join task running a range of battle batches. Each matchup is split
+     * into several batches so that large runs spread evenly over all cores.
+     */
+    private class SimulationTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;//The version of the serialized form inherited from RecursiveAction.
+        private final Report report;
+        private final int tasksPerMatchup;
+        private final int from;
+        private final int to;
+
+        SimulationTask(Report report, int tasksPerMatchup, int from, int to) {
+            this.report = report;
+            this.tasksPerMatchup = tasksPerMatchup;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new SimulationTask(report, tasksPerMatchup, from, middle),
+                        new SimulationTask(report, tasksPerMatchup, middle, to));
+                return;
+            }
+            int matchup = from / tasksPerMatchup;
+            int batch = from % tasksPerMatchup;
+            int count = Math.min(BATTLES_PER_TASK, battlesPerMatchup - batch * BATTLES_PER_TASK);
+            runBattles(report, matchup, count, RandomService.stream(from));
+        }
+    }
+
+    /**
+     * The Report class holds the outcome counts of a simulation, for every pair of
+     * player species and enemy species.
+     */
+    public static class Report {
+        private final int battlesPerMatchup;
+        private final AtomicLongArray wins = new AtomicLongArray(MATCHUPS);
+        private final AtomicLongArray captures = new AtomicLongArray(MATCHUPS);
+        private final AtomicLongArray flees = new AtomicLongArray(MATCHUPS);
+        private long elapsedNanos;
+
+        Report(int battlesPerMatchup) {
+            this.battlesPerMatchup = battlesPerMatchup;
+        }
+
+        void record(int matchup, int winCount, int captureCount, int fleeCount) {
+            wins.addAndGet(matchup, winCount);
+            captures.addAndGet(matchup, captureCount);
+            flees.addAndGet(matchup, fleeCount);
+        }
+
+        /**
+         * Gets the rate at which the enemy was defeated.
+         *
+         * @param playerSpecies The species index of the player's creature.
+         * @param enemySpecies  The species index of the enemy creature.
+         * @return The win rate, between 0 and 1.
+         */
+        public double getWinRate(int playerSpecies, int enemySpecies) {
+            return (double) wins.get(playerSpecies * SPECIES_TOTAL + enemySpecies) / battlesPerMatchup;
+        }
+
+        /**
+         * Gets the rate at which the enemy was captured.
+         *
+         * @param playerSpecies The species index of the player's creature.
+         * @param enemySpecies  The species index of the enemy creature.
+         * @return The capture rate, between 0 and 1.
+         */
+        public double getCaptureRate(int playerSpecies, int enemySpecies) {
+            return (double) captures.get(playerSpecies * SPECIES_TOTAL + enemySpecies) / battlesPerMatchup;
+        }
+
+        /**
+         * Gets the rate at which the battle ended with neither a win nor a capture.
+         *
+         * @param playerSpecies The species index of the player's creature.
+         * @param enemySpecies  The species index of the enemy creature.
+         * @return The flee rate, between 0 and 1.
+         */
+        public double getFleeRate(int playerSpecies, int enemySpecies) {
+            return (double) flees.get(playerSpecies * SPECIES_TOTAL + enemySpecies) / battlesPerMatchup;
+        }
+
+        /**
+         * Gets the total number of battles simulated.
+         *
+         * @return The number of battles.
+         */
+        public long getTotalBattles() {
+            return (long) battlesPerMatchup * MATCHUPS;
+        }
+
+        /**
+         * Gets the simulation throughput.
+         *
+         * @return The number of battles simulated per second.
+         */
+        public double getBattlesPerSecond() {
+            return getTotalBattles() / (elapsedNanos / 1e9);
+        }
+
+        /**
+         * Prints the rates of every matchup followed by the throughput.
+         *
+         * @param out The stream to print to.
+         */
+        public void print(PrintStream out) {
+            String[] names = new String[SPECIES_TOTAL];
+            for (int species = 0; species < SPECIES_TOTAL; species++) {
+                names[species] = createCreature(species).getName() + " (EL" + (species / EL1Creatures.SPECIES_COUNT + 1) + ")";
+            }
+            out.printf("%-18s %-18s %7s %7s %7s%n", "Player", "Enemy", "Win", "Capture", "Flee");
+            for (int player = 0; player < SPECIES_TOTAL; player++) {
+                for (int enemy = 0; enemy < SPECIES_TOTAL; enemy++) {
+                    out.printf("%-18s %-18s %6.2f%% %6.2f%% %6.2f%%%n", names[player], names[enemy],
+                            getWinRate(player, enemy) * 100, getCaptureRate(player, enemy) * 100, getFleeRate(player, enemy) * 100);
+                }
+            }
+            out.printf("%d battles in %.3f s (%.0f battles/s)%n", getTotalBattles(), elapsedNanos / 1e9, getBattlesPerSecond());
+        }
+    }
+
+    /**
+     * Runs the simulator from the command line.
+     *
+     * @param args The policy name, the number of battles per matchup and an optional seed,
+     *             e.g. "ATTACK_THEN_CATCH 10000 42".
+     */
+    public static void main(String[] args) {
+        if (args.length > 2) {
+            RandomService.setSeed(Long.parseLong(args[2]));
+        }
+        BattlePolicy policy = BattlePolicy.named(args.length > 0 ? args[0] : "ATTACK_THEN_CATCH");
+        int battlesPerMatchup = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+        new BattleSimulator(policy, battlesPerMatchup).run().print(System.out);
+    }
+}
@@ -0,0 +1,1319 @@
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.swing.JComboBox;
+import javax.swing.SwingUtilities;
+
+/**
+ * The Benchmarks class holds the micro-benchmarks for the performance-sensitive parts
+ * of the game. Run it with the name of a benchmark, e.g. "java Benchmarks typechart",
+ * or without arguments to run all of them.
+ *
+ */
+public class Benchmarks {
+    private static final int WARMUP_ROUNDS = 3;//The number of untimed rounds run before measuring.
+    private static volatile long sink;//Consumes benchmark results so the JIT cannot drop the work.
+
+    /**
+     * Runs the benchmarks named on the command line, or all benchmarks if none are named.
+     *
+     * @param args The names of the benchmarks to run.
+     */
+    public static void main(String[] args) {
+        Map<String, Runnable> benchmarks = new LinkedHashMap<>();
+        benchmarks.put("typechart", Benchmarks::typeChart);
+        benchmarks.put("journal", Benchmarks::journal);
+        benchmarks.put("battlebatch", Benchmarks::battleBatch);
+        benchmarks.put("sessions", Benchmarks::sessions);
+        benchmarks.put("species", Benchmarks::species);
+        benchmarks.put("catalog", Benchmarks::catalog);
+        benchmarks.put("encounters", Benchmarks::encounters);
+        benchmarks.put("spawn", Benchmarks::spawn);
+        benchmarks.put("store", Benchmarks::store);
+        benchmarks.put("snapshot", Benchmarks::snapshot);
+        benchmarks.put("pairs", Benchmarks::pairs);
+        benchmarks.put("membership", Benchmarks::membership);
+        benchmarks.put("evolveall", Benchmarks::evolveAll);
+        benchmarks.put("contention", Benchmarks::contention);
+        benchmarks.put("savegame", Benchmarks::saveGame);
+        benchmarks.put("inventoryjournal", Benchmarks::inventoryJournal);
+        benchmarks.put("query", Benchmarks::query);
+        benchmarks.put("combomodel", Benchmarks::comboModel);
+        benchmarks.put("evolutiongraph", Benchmarks::evolutionGraph);
+        benchmarks.put("evolvetransactions", Benchmarks::evolveTransactions);
+        benchmarks.put("planner", Benchmarks::planner);
+
+        List<String> names = args.length > 0 ? List.of(args) : new ArrayList<>(benchmarks.keySet());
+        for (String name : names) {
+            Runnable benchmark = benchmarks.get(name);
+            if (benchmark == null) {
+                System.err.println("Unknown benchmark: " + name + ", expected one of " + benchmarks.keySet());
+                continue;
+            }
+            System.out.println("== " + name);
+            benchmark.run();
+        }
+    }
+
+    /**
+     * Measures the cost of a type chart lookup as the number of types grows, for
+     * single-typed and dual-typed defenders.
+     */
+    public static void typeChart() {
+        int lookups = 1 << 16;
+        int rounds = 200;
+        for (int typeCount : new int[]{3, 16, 64}) {
+            TypeChart chart = randomChart(typeCount, new Random(typeCount));
+            Random random = new Random(42);
+            int[] attackers = new int[lookups];
+            int[] defenders = new int[lookups];
+            long[] defenderMasks = new long[lookups];
+            for (int i = 0; i < lookups; i++) {
+                attackers[i] = random.nextInt(typeCount);
+                defenders[i] = random.nextInt(typeCount);
+                defenderMasks[i] = (1L << defenders[i]) | (1L << random.nextInt(typeCount));
+            }
+
+            double single = measure(rounds, lookups, () -> {
+                long total = 0;
+                for (int i = 0; i < lookups; i++) {
+                    total += chart.getMultiplier(attackers[i], defenders[i]);
+                }
+                return total;
+            });
+            double dual = measure(rounds, lookups, () -> {
+                long total = 0;
+                for (int i = 0; i < lookups; i++) {
+                    total += chart.getMultiplierForMask(attackers[i], defenderMasks[i]);
+                }
+                return total;
+            });
+            System.out.printf("%2d types: %.2f ns/lookup single type, %.2f ns/lookup dual type%n", typeCount, single, dual);
+        }
+    }
+
+    /**
+     * Measures the cost of recording battles to a {@link BattleJournal} and the speed of
+     * streaming the journal back.
+     */
+    public static void journal() {
+        int battles = 1_000_000;
+        try {
+            Path path = Files.createTempFile("battle-journal", ".bin");
+            try {
+                double plain = measure(1, battles, () -> playBattles(battles, null));
+                double recorded;
+                try (BattleJournal journal = new BattleJournal(path)) {
+                    recorded = measure(1, battles, () -> playBattles(battles, journal));
+                }
+                long size = Files.size(path);
+                long start = System.nanoTime();
+                long records = 0;
+                long captures = 0;
+                try (BattleJournal.Reader reader = new BattleJournal.Reader(path)) {
+                    while (reader.next()) {
+                        records++;
+                        if (reader.isCaught()) {
+                            captures++;
+                        }
+                    }
+                }
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.printf("%.0f ns/battle unrecorded, %.0f ns/battle recorded%n", plain, recorded);
+                System.out.printf("scanned %d records (%d captures, %d MB) at %.0f MB/s%n",
+                        records, captures, size >> 20, size / seconds / (1 << 20));
+            } finally {
+                Files.delete(path);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Checks that {@link BattleBatch} follows the {@link Battle} rules, then compares the
+     * speed of a batch against playing the same battles with {@link Battle} objects.
+     */
+    public static void battleBatch() {
+        for (long seed = 0; seed < 10_000; seed++) {
+            Creature player = BattleSimulator.createCreature((int) (seed % BattleSimulator.SPECIES_TOTAL));
+            Creature enemy = BattleSimulator.createCreature((int) (seed / 7 % BattleSimulator.SPECIES_TOTAL));
+            Inventory inventory = new Inventory();
+            inventory.addCreature(player);
+            Battle battle = new Battle(player, enemy, inventory, new SplittableRandom(seed));
+            BattleBatch batch = new BattleBatch(1);
+            SplittableRandom random = new SplittableRandom(seed);
+            batch.start(0, player.getEvolutionLevel(), player.getType(), enemy.getType());
+            for (int action = 0; action < Battle.MAX_ACTIONS && !battle.isBattleOver(); action++) {
+                if (action < Battle.MAX_ACTIONS - 1) {
+                    battle.attack();
+                    batch.attackAll(random);
+                } else {
+                    battle.tryCapture();
+                    batch.captureAll(random);
+                }
+            }
+            if (battle.getEnemy().getHealth() != batch.getEnemyHealth(0)
+                    || battle.isEnemyCaught() != batch.isEnemyCaught(0)
+                    || battle.isBattleOver() != batch.isBattleOver(0)) {
+                throw new IllegalStateException("BattleBatch differs from Battle for seed " + seed);
+            }
+        }
+        System.out.println("BattleBatch matches Battle for 10000 seeded battles");
+
+        int battles = 1 << 20;
+        double objects = measure(1, battles, () -> playBattles(battles, null));
+        BattleBatch batch = new BattleBatch(battles);
+        CreatureType[] types = CreatureType.values();
+        double batched = measure(1, battles, () -> {
+            SplittableRandom random = RandomService.stream(0);
+            for (int i = 0; i < battles; i++) {
+                batch.start(i, 1, types[i % types.length], types[i / types.length % types.length]);
+            }
+            batch.attackAll(random);
+            batch.attackAll(random);
+            batch.captureAll(random);
+            return batch.countCaught();
+        });
+        System.out.printf("%.1f ns/battle with Battle objects, %.1f ns/battle with BattleBatch%n", objects, batched);
+    }
+
+    /**
+     * Load-tests the {@link BattleSessionManager}: opens more and more sessions and
+     * sends bursts of actions spread over all of them, reporting the action latency.
+     * The first run only warms up the JIT compiler.
+     */
+    public static void sessions() {
+        int burst = 1000;
+        int actions = 200_000;
+        int[] sessionCounts = {1_000, 1_000, 10_000, 100_000};
+        for (int run = 0; run < sessionCounts.length; run++) {
+            int sessionCount = sessionCounts[run];
+            try (BattleSessionManager manager = new BattleSessionManager()) {
+                long[] ids = new long[sessionCount];
+                for (int i = 0; i < sessionCount; i++) {
+                    Creature player = EL1Creatures.createCreature(i % EL1Creatures.SPECIES_COUNT + 1);
+                    Creature reserve = EL2Creatures.createCreature((i + 1) % EL2Creatures.SPECIES_COUNT + 1);
+                    ids[i] = manager.openSession(List.of(player, reserve), EL1Creatures.createCreature(i / 7 % EL1Creatures.SPECIES_COUNT + 1));
+                }
+                BattleAction[] script = {BattleAction.ATTACK, BattleAction.SWAP, BattleAction.CATCH};
+                long[] latencies = new long[actions];
+                long start = System.nanoTime();
+                for (int sent = 0; sent < actions; sent += burst) {
+                    CountDownLatch done = new CountDownLatch(burst);
+                    for (int i = sent; i < sent + burst; i++) {
+                        int index = i;
+                        long session = ids[(int) ((i * 7919L) % sessionCount)];
+                        long sentAt = System.nanoTime();
+                        manager.send(session, script[i / sessionCount % script.length]).whenComplete((state, error) -> {
+                            latencies[index] = System.nanoTime() - sentAt;
+                            done.countDown();
+                        });
+                    }
+                    done.await();
+                }
+                double seconds = (System.nanoTime() - start) / 1e9;
+                Arrays.sort(latencies);
+                if (run == 0) {
+                    continue;
+                }
+                System.out.printf("%,7d sessions: %,.0f actions/s, p50 %.1f us, p99 %.1f us%n", sessionCount, actions / seconds,
+                        latencies[actions / 2] / 1e3, latencies[actions * 99 / 100] / 1e3);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Compares the heap used by a million creatures that reference a shared {@link Species}
+     * with the same creatures carrying their own copy of the species data, as they did
+     * before species were introduced.
+     */
+    public static void species() {
+        int count = 1_000_000;
+        long before = usedMemory();
+        Object[] legacy = new Object[count];
+        for (int i = 0; i < count; i++) {
+            Species species = Species.byId(i % Species.count());
+            legacy[i] = new LegacyCreature(i, new String(species.getName()), species.getType(), new String(species.getFamily()),
+                    species.getEvolutionLevel(), new String(species.getIconPath()), species.getMaxHealth());
+        }
+        long legacyBytes = usedMemory() - before;
+        legacy = null;
+
+        before = usedMemory();
+        Creature[] creatures = Fixtures.cyclingCreatures(count);
+        long creatureBytes = usedMemory() - before;
+        sink += creatures.length;
+        System.out.printf("%d bytes/creature with per-creature data, %d bytes/creature with shared species%n",
+                legacyBytes / count, creatureBytes / count);
+    }
+
+    /**
+     * Measures loading a species catalog of 10,000 species and looking species up by
+     * name and by family and level.
+     */
+    public static void catalog() {
+        int families = 3334;
+        StringBuilder text = new StringBuilder("# name,type,family,level,icon,maxHealth\n");
+        CreatureType[] types = CreatureType.values();
+        for (int family = 0; family < families; family++) {
+            for (int level = 1; level <= 3; level++) {
+                String name = "Species" + family + "L" + level;
+                text.append(name).append(',').append(types[family % types.length]).append(",F").append(family)
+                        .append(',').append(level).append(",/").append(name).append(".png,100\n");
+            }
+        }
+        String catalogText = text.toString();
+        double loadNanos = measure(20, 1, () -> {
+            try {
+                return SpeciesCatalog.parse(new StringReader(catalogText)).size();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        SpeciesCatalog catalog;
+        try {
+            catalog = SpeciesCatalog.parse(new StringReader(catalogText));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        int lookups = 1 << 16;
+        String[] names = new String[lookups];
+        Random random = new Random(1);
+        for (int i = 0; i < lookups; i++) {
+            names[i] = catalog.get(random.nextInt(catalog.size())).getName();
+        }
+        double byName = measure(100, lookups, () -> {
+            long total = 0;
+            for (String name : names) {
+                total += catalog.byName(name).getId();
+            }
+            return total;
+        });
+        double byFamily = measure(100, lookups, () -> {
+            long total = 0;
+            for (int i = 0; i < lookups; i++) {
+                total += catalog.of(i % families, i % 3 + 1).getId();
+            }
+            return total;
+        });
+        System.out.printf("loaded %d species in %.2f ms; %.1f ns/lookup by name, %.1f ns/lookup by family and level%n",
+                catalog.size(), loadNanos / 1e6, byName, byFamily);
+    }
+
+    /**
+     * Measures finding what a species evolves into with an {@link EvolutionGraph}, for
+     * catalogs with chains of 3 and of 12 levels where every family branches at level 2,
+     * against building the evolved name and icon path from strings and against looking
+     * the evolved species up by name, family and level.
+     */
+    public static void evolutionGraph() {
+        int families = 1000;
+        int lookups = 1 << 16;
+        for (int depth : new int[]{3, 12}) {
+            StringBuilder text = new StringBuilder();
+            for (int family = 0; family < families; family++) {
+                for (int level = 1; level <= depth; level++) {
+                    text.append("S").append(family).append("L").append(level).append(",FIRE,F").append(family).append(',')
+                            .append(level).append(",/s.png,").append(100 + level * 20).append('\n');
+                    if (level == 2) {
+                        text.append("S").append(family).append("L2b,WATER,F").append(family).append(",2,/s.png,140,S")
+                                .append(family).append("L1\n");
+                    }
+                }
+            }
+            SpeciesCatalog catalog;
+            try {
+                catalog = SpeciesCatalog.parse(new StringReader(text.toString()));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            long start = System.nanoTime();
+            EvolutionGraph graph = EvolutionGraph.of(catalog);
+            double buildMillis = (System.nanoTime() - start) / 1e6;
+            Species[] species = new Species[lookups];
+            Random random = new Random(1);
+            for (int i = 0; i < lookups; i++) {
+                species[i] = catalog.get(random.nextInt(catalog.size()));
+            }
+            double graphNanos = measure(100, lookups, () -> {
+                long total = 0;
+                for (Species from : species) {
+                    Species next = graph.next(from);
+                    total += next == null ? 0 : next.getMaxHealth() + next.getIconPath().length();
+                }
+                return total;
+            });
+            double stringNanos = measure(100, lookups, () -> {
+                long total = 0;
+                for (Species from : species) {
+                    String name = from.getFamily() + "EvolvedLv" + (from.getEvolutionLevel() + 1);
+                    String icon = "src/" + from.getFamily().toLowerCase() + "_evolution_" + (from.getEvolutionLevel() + 1) + ".png";
+                    total += name.length() + icon.length();
+                }
+                return total;
+            });
+            double nameNanos = measure(100, lookups, () -> {
+                long total = 0;
+                for (Species from : species) {
+                    Species named = catalog.byName(from.getName());
+                    Species next = catalog.of(named.getFamilyIndex(), named.getEvolutionLevel() + 1);
+                    total += next == null ? 0 : next.getMaxHealth() + next.getIconPath().length();
+                }
+                return total;
+            });
+            System.out.printf("%,6d species, %2d levels: graph built in %.1f ms; %.1f ns/lookup with the graph, "
+                    + "%.1f ns building strings, %.1f ns by name%n", catalog.size(), depth, buildMillis, graphNanos,
+                    stringNanos, nameNanos);
+        }
+    }
+
+    /**
+     * Checks with a chi-square test that an {@link EncounterTable} of several hundred
+     * species draws each one in proportion to its weight, then compares the speed of a
+     * draw against a linear scan and a binary search over the cumulative weights.
+     */
+    public static void encounters() {
+        int draws = 10_000_000;
+        for (int size : new int[]{9, 100, 500}) {
+            EncounterTable.Builder builder = EncounterTable.builder();
+            double[] cumulative = new double[size];
+            double total = 0;
+            for (int i = 0; i < size; i++) {
+                double weight = 1.0 / (i + 1);
+                builder.add(Species.byId(i % Species.count()), weight);
+                total += weight;
+                cumulative[i] = total;
+            }
+            EncounterTable table = builder.build();
+
+            long[] observed = new long[size];
+            SplittableRandom random = new SplittableRandom(size);
+            for (int i = 0; i < draws; i++) {
+                observed[table.sampleIndex(random)]++;
+            }
+            double chiSquare = 0;
+            for (int i = 0; i < size; i++) {
+                double expected = draws * table.getWeight(i) / total;
+                chiSquare += (observed[i] - expected) * (observed[i] - expected) / expected;
+            }
+            // Wilson-Hilferty approximation of the chi-square quantile at p = 0.001.
+            int freedom = size - 1;
+            double spread = 2.0 / (9 * freedom);
+            double critical = freedom * Math.pow(1 - spread + 3.09 * Math.sqrt(spread), 3);
+
+            double sumOfWeights = total;
+            int lookups = 1 << 16;
+            double alias = measure(100, lookups, () -> {
+                SplittableRandom r = new SplittableRandom(7);
+                long sum = 0;
+                for (int i = 0; i < lookups; i++) {
+                    sum += table.sampleIndex(r);
+                }
+                return sum;
+            });
+            double linear = measure(20, lookups, () -> {
+                SplittableRandom r = new SplittableRandom(7);
+                long sum = 0;
+                for (int i = 0; i < lookups; i++) {
+                    double target = r.nextDouble() * sumOfWeights;
+                    int index = 0;
+                    while (index < size - 1 && cumulative[index] <= target) {
+                        index++;
+                    }
+                    sum += index;
+                }
+                return sum;
+            });
+            double binary = measure(100, lookups, () -> {
+                SplittableRandom r = new SplittableRandom(7);
+                long sum = 0;
+                for (int i = 0; i < lookups; i++) {
+                    int index = Arrays.binarySearch(cumulative, r.nextDouble() * sumOfWeights);
+                    sum += Math.min(index < 0 ? -index - 1 : index + 1, size - 1);
+                }
+                return sum;
+            });
+            System.out.printf("%3d species: chi-square %.1f (critical %.1f at p=0.001) %s; "
+                            + "%.1f ns/draw alias, %.1f ns/draw linear scan, %.1f ns/draw binary search%n",
+                    size, chiSquare, critical, chiSquare < critical ? "PASS" : "FAIL", alias, linear, binary);
+        }
+    }
+
+    /**
+     * Compares creating creatures one at a time with the constructor against
+     * {@link Creature#spawn(Species, int)} as more threads create creatures at once,
+     * and checks that no two spawned creatures share an ID, including after the ID
+     * counter is moved past a block a thread has reserved.
+     */
+    public static void spawn() {
+        int perThread = 2_000_000;
+        int batch = 1000;
+        Species species = Species.byId(0);
+        for (int threads : new int[]{1, 2, 4, 8}) {
+            long[][] ids = new long[threads][perThread];
+            double constructor = runThreads(threads, perThread, thread -> {
+                long[] out = ids[thread];
+                for (int i = 0; i < perThread; i++) {
+                    out[i] = new Creature(species).getId();
+                }
+            });
+            double bulk = runThreads(threads, perThread, thread -> {
+                long[] out = ids[thread];
+                for (int i = 0; i < perThread; i += batch) {
+                    List<Creature> creatures = Creature.spawn(species, batch);
+                    for (int j = 0; j < batch; j++) {
+                        out[i + j] = creatures.get(j).getId();
+                    }
+                }
+            });
+            long[] all = new long[threads * perThread];
+            for (int thread = 0; thread < threads; thread++) {
+                System.arraycopy(ids[thread], 0, all, thread * perThread, perThread);
+            }
+            Arrays.sort(all);
+            boolean unique = true;
+            for (int i = 1; i < all.length && unique; i++) {
+                unique = all[i] != all[i - 1];
+            }
+            System.out.printf("%d threads: %.1f ns/creature constructor, %.1f ns/creature spawn, IDs %s%n",
+                    threads, constructor, bulk, unique ? "unique" : "DUPLICATED");
+        }
+        long reserved = Creature.spawn(species, 1).get(0).getId();
+        Creature.advanceNextId(reserved + 50);
+        long next = Creature.spawn(species, 1).get(0).getId();
+        System.out.printf("spawn after the ID counter moves past a reserved block: IDs %s%n",
+                next >= reserved + 50 ? "unique" : "REUSED");
+    }
+
+    /**
+     * Compares the heap used by an {@link ArrayList} of creature objects with a
+     * {@link CreatureStore} holding the same creatures, and the speed of scanning each
+     * for the total health of evolved creatures. The number of creatures defaults to
+     * 10 million and can be set with the system property {@code benchmarks.store.count}.
+     * {@link CreatureStoreCheck} checks that both hold the same creatures.
+     */
+    public static void store() {
+        int count = Integer.getInteger("benchmarks.store.count", 10_000_000);
+
+        long before = usedMemory();
+        List<Creature> list = new ArrayList<>(Arrays.asList(Fixtures.cyclingCreatures(count)));
+        for (int i = 0; i < count; i++) {
+            list.get(i).setHealth(i % 51);
+        }
+        long listBytes = usedMemory() - before;
+        double listScan = measure(10, count, () -> {
+            long total = 0;
+            for (Creature creature : list) {
+                if (creature.getEvolutionLevel() >= 2) {
+                    total += creature.getHealth();
+                }
+            }
+            return total;
+        });
+
+        before = usedMemory();
+        CreatureStore store = CreatureStore.of(list);
+        long storeBytes = usedMemory() - before;
+        CreatureStore.Cursor cursor = store.cursor();
+        double storeScan = measure(10, count, () -> {
+            long total = 0;
+            cursor.reset();
+            while (cursor.next()) {
+                if (cursor.getLevel() >= 2) {
+                    total += cursor.getHealth();
+                }
+            }
+            return total;
+        });
+        System.out.printf("%,d creatures: %d bytes/creature and %.2f ns/creature scan as ArrayList, "
+                        + "%d bytes/creature and %.2f ns/creature scan as CreatureStore%n",
+                count, listBytes / count, listScan, storeBytes / count, storeScan);
+    }
+
+    /**
+     * Measures reading the creatures of an unchanged {@link Inventory} through its
+     * cached snapshot against copying the list on every read, as it was done before
+     * snapshots, and the cost of the first read after a change. {@link InventorySnapshotCheck}
+     * checks what the snapshots hold.
+     */
+    public static void snapshot() {
+        for (int size : new int[]{10, 1_000, 100_000}) {
+            Inventory inventory = Fixtures.fill(new Inventory(), Fixtures.cyclingCreatures(size));
+            int reads = 10_000;
+            double cached = measure(20, reads, () -> {
+                long total = 0;
+                for (int i = 0; i < reads; i++) {
+                    total += inventory.getCreatures().size();
+                }
+                return total;
+            });
+            double copied = measure(20, reads / 100, () -> {
+                long total = 0;
+                for (int i = 0; i < reads / 100; i++) {
+                    total += new ArrayList<>(inventory.getCreatures()).size();
+                }
+                return total;
+            });
+            Creature extra = new Creature(Species.byId(0));
+            double changed = measure(20, reads / 100, () -> {
+                long total = 0;
+                for (int i = 0; i < reads / 100; i++) {
+                    inventory.addCreature(extra);
+                    total += inventory.getCreatures().size();
+                    inventory.removeCreature(extra);
+                }
+                return total;
+            });
+            System.out.printf("%,7d creatures: %.1f ns/read cached, %.1f ns/read copied, %.1f ns/read after a change%n",
+                    size, cached, copied, changed);
+        }
+    }
+
+    /**
+     * Measures finding evolution partners in an inventory of a million creatures with
+     * the family and level index, against scanning the whole inventory.
+     */
+    public static void pairs() {
+        int count = 1_000_000;
+        int speciesCount = Species.count();
+        Inventory inventory = new Inventory();
+        Creature[] creatures = new Creature[count];
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            creatures[i] = new Creature(Species.byId((int) (i * 7919L % speciesCount)));
+            inventory.addCreature(creatures[i]);
+        }
+        double addNanos = (double) (System.nanoTime() - start) / count;
+        int lookups = 1 << 12;
+        double indexed = measure(20, lookups, () -> {
+            long total = 0;
+            for (int i = 0; i < lookups; i++) {
+                Creature partner = inventory.findEvolutionPartner(creatures[(int) (i * 241L % count)]);
+                total += partner == null ? 0 : partner.getId();
+            }
+            return total;
+        });
+        double scanned = measure(2, 16, () -> {
+            long total = 0;
+            for (int i = 0; i < 16; i++) {
+                Creature creature = creatures[(int) (i * 241L % count)];
+                for (Creature candidate : inventory.getCreatures()) {
+                    if (!candidate.equals(creature) && inventory.canEvolve(creature, candidate)) {
+                        total += candidate.getId();
+                        break;
+                    }
+                }
+            }
+            return total;
+        });
+        double allPartners = measure(5, 16, () -> {
+            long total = 0;
+            for (int i = 0; i < 16; i++) {
+                total += inventory.getEvolutionPartners(creatures[(int) (i * 241L % count)]).size();
+            }
+            return total;
+        });
+        start = System.nanoTime();
+        int pairCount = inventory.getEvolvablePairs().size();
+        double pairMillis = (System.nanoTime() - start) / 1e6;
+        System.out.printf("%,d creatures (%.0f ns/add): %.0f ns/partner indexed, %.0f ns/partner by scan, "
+                        + "%.2f ms for all partners of one creature, %,d disjoint pairs in %.0f ms%n",
+                count, addNanos, indexed, scanned, allPartners / 1e6, pairCount, pairMillis);
+    }
+
+    /**
+     * Measures membership tests, activation and removal in an {@link Inventory} backed
+     * by the ID-keyed {@link CreatureMap}, against the {@link ArrayList} scans it replaced,
+     * at 100 thousand and 1 million creatures.
+     */
+    public static void membership() {
+        for (int count : new int[]{100_000, 1_000_000}) {
+            Creature[] creatures = Fixtures.cyclingCreatures(count);
+            Inventory inventory = Fixtures.fill(new Inventory(), creatures);
+            List<Creature> list = new ArrayList<>(Arrays.asList(creatures));
+            int operations = 1 << 16;
+            int[] picks = new int[operations];
+            Random random = new Random(count);
+            for (int i = 0; i < operations; i++) {
+                picks[i] = random.nextInt(count);
+            }
+            double contains = measure(20, operations, () -> {
+                long total = 0;
+                for (int pick : picks) {
+                    total += inventory.contains(creatures[pick]) ? 1 : 0;
+                }
+                return total;
+            });
+            double activate = measure(20, operations, () -> {
+                for (int pick : picks) {
+                    inventory.setActiveCreature(creatures[pick]);
+                }
+                return inventory.getActiveCreature().getId();
+            });
+            double removeAdd = measure(20, operations, () -> {
+                for (int pick : picks) {
+                    inventory.removeCreature(creatures[pick]);
+                    inventory.addCreature(creatures[pick]);
+                }
+                return inventory.size();
+            });
+            int scans = 64;
+            double listContains = measure(2, scans, () -> {
+                long total = 0;
+                for (int i = 0; i < scans; i++) {
+                    total += list.contains(creatures[picks[i]]) ? 1 : 0;
+                }
+                return total;
+            });
+            double listRemoveAdd = measure(2, scans, () -> {
+                for (int i = 0; i < scans; i++) {
+                    list.remove(creatures[picks[i]]);
+                    list.add(creatures[picks[i]]);
+                }
+                return list.size();
+            });
+            System.out.printf("%,9d creatures: contains %.0f ns, activate %.0f ns, remove+add %.0f ns; "
+                            + "ArrayList contains %,.0f ns, remove+add %,.0f ns%n",
+                    count, contains, activate, removeAdd, listContains, listRemoveAdd);
+        }
+    }
+
+    /**
+     * Measures {@link Inventory#evolveAll()} against evolving the same inventory one
+     * pair at a time with {@link Inventory#evolveCreature}. {@link EvolveAllCheck}
+     * checks that both end with the same creatures.
+     */
+    public static void evolveAll() {
+        for (int count : new int[]{100_000, 1_000_000}) {
+            Creature[] creatures = Fixtures.randomCreatures(count, count);
+            Creature[] copies = new Creature[count];
+            for (int i = 0; i < count; i++) {
+                copies[i] = new Creature(creatures[i].getSpecies());
+            }
+            Inventory bulk = Fixtures.fill(new Inventory(), creatures);
+            Inventory pairwise = Fixtures.fill(new Inventory(), copies);
+            long start = System.nanoTime();
+            int bulkEvolutions = bulk.evolveAll();
+            double bulkMillis = (System.nanoTime() - start) / 1e6;
+
+            start = System.nanoTime();
+            int pairEvolutions = 0;
+            List<Inventory.EvolutionPair> pairs;
+            while (!(pairs = pairwise.getEvolvablePairs()).isEmpty()) {
+                for (Inventory.EvolutionPair pair : pairs) {
+                    pairwise.evolveCreature(pair.getFirst(), pair.getSecond());
+                    pairEvolutions++;
+                }
+            }
+            double pairMillis = (System.nanoTime() - start) / 1e6;
+            sink += pairEvolutions;
+            System.out.printf("%,9d creatures: %,d evolutions in %.0f ms with evolveAll, %.0f ms pair by pair%n",
+                    count, bulkEvolutions, bulkMillis, pairMillis);
+        }
+    }
+
+    /**
+     * Runs one writer thread that keeps removing and re-adding creatures against N
+     * reader threads that test membership and read the size and the active creature,
+     * on a concurrent {@link Inventory} and on a plain one guarded by a single monitor.
+     * Readers also check that every size and snapshot they see is one the writer could
+     * have left behind.
+     */
+    public static void contention() {
+        int count = 100_000;
+        long millis = 500;
+        for (int readers : new int[]{1, 2, 4, 8}) {
+            for (boolean concurrent : new boolean[]{true, false}) {
+                Creature[] creatures = Fixtures.cyclingCreatures(count);
+                Inventory inventory = Fixtures.fill(new Inventory(concurrent), creatures);
+                Object monitor = new Object();
+                AtomicBoolean running = new AtomicBoolean(true);
+                AtomicLong reads = new AtomicLong();
+                AtomicLong writes = new AtomicLong();
+                AtomicBoolean consistent = new AtomicBoolean(true);
+                Thread[] threads = new Thread[readers + 1];
+                threads[0] = new Thread(() -> {
+                    SplittableRandom random = new SplittableRandom(1);
+                    long done = 0;
+                    while (running.get()) {
+                        Creature creature = creatures[random.nextInt(count)];
+                        if (concurrent) {
+                            inventory.removeCreature(creature);
+                            inventory.addCreature(creature);
+                        } else {
+                            synchronized (monitor) {
+                                inventory.removeCreature(creature);
+                                inventory.addCreature(creature);
+                            }
+                        }
+                        done++;
+                    }
+                    writes.addAndGet(done);
+                });
+                for (int r = 1; r <= readers; r++) {
+                    int seed = r;
+                    threads[r] = new Thread(() -> {
+                        SplittableRandom random = new SplittableRandom(seed);
+                        long done = 0;
+                        while (running.get()) {
+                            Creature creature = creatures[random.nextInt(count)];
+                            int size;
+                            if (concurrent) {
+                                size = inventory.size();
+                                sink += inventory.contains(creature) ? 1 : 0;
+                                sink += inventory.getActiveCreature().getId();
+                            } else {
+                                synchronized (monitor) {
+                                    size = inventory.size();
+                                    sink += inventory.contains(creature) ? 1 : 0;
+                                    sink += inventory.getActiveCreature().getId();
+                                }
+                            }
+                            if (size < count - 1 || size > count) {
+                                consistent.set(false);
+                            }
+                            if ((++done & 0xffff) == 0 && concurrent) {
+                                int snapshotSize = inventory.getCreatures().size();
+                                if (snapshotSize < count - 1 || snapshotSize > count) {
+                                    consistent.set(false);
+                                }
+                            }
+                        }
+                        reads.addAndGet(done);
+                    });
+                }
+                for (Thread thread : threads) {
+                    thread.start();
+                }
+                try {
+                    Thread.sleep(millis);
+                    running.set(false);
+                    for (Thread thread : threads) {
+                        thread.join();
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                System.out.printf("1 writer, %d readers, %-17s %,12.0f reads/s %,11.0f writes/s%s%n", readers,
+                        concurrent ? "concurrent mode:" : "single monitor:", reads.get() * 1000.0 / millis,
+                        writes.get() * 1000.0 / millis, consistent.get() ? "" : " INCONSISTENT");
+            }
+        }
+    }
+
+    /**
+     * Measures planning the evolution of inventories of up to a million creatures with
+     * {@link EvolutionPlanner}, against carrying it out with {@link Inventory#evolveAll()}.
+     * {@link EvolutionPlannerCheck} checks the plans.
+     */
+    public static void planner() {
+        for (int count : new int[]{1_000, 100_000, 1_000_000}) {
+            Inventory inventory = Fixtures.fill(new Inventory(), Fixtures.randomCreatures(count, count));
+            EvolutionPlanner planner = EvolutionPlanner.getDefault();
+            double planMicros = measure(1_000, 1, () -> planner.plan(inventory).getEvolutions()) / 1e3;
+            EvolutionPlanner.Plan plan = planner.plan(inventory);
+
+            long start = System.nanoTime();
+            sink += inventory.evolveAll();
+            double evolveMillis = (System.nanoTime() - start) / 1e6;
+            System.out.printf("%,9d creatures: plan of %,d evolutions (%,d at level %d) in %.1f us, evolveAll in %.0f ms%n",
+                    count, plan.getEvolutions(), plan.getCountAtLevel(Inventory.MAX_EVOLUTION_LEVEL),
+                    Inventory.MAX_EVOLUTION_LEVEL, planMicros, evolveMillis);
+        }
+    }
+
+    /**
+     * Has several threads evolve random pairs of a shared inventory, which often
+     * overlap, with transactional evolution and with every evolution behind one global
+     * lock. {@link EvolutionTransactionCheck} checks what the evolutions leave.
+     */
+    public static void evolveTransactions() {
+        evolveConcurrently(4, true, false);
+        evolveConcurrently(4, false, false);
+        for (int threadCount : new int[]{1, 2, 4, 8}) {
+            for (boolean transactional : new boolean[]{true, false}) {
+                evolveConcurrently(threadCount, transactional, true);
+            }
+        }
+    }
+
+    /**
+     * Runs one round of {@link #evolveTransactions()}.
+     *
+     * @param threadCount   The number of evolving threads.
+     * @param transactional Whether to evolve with transactions rather than behind a global lock.
+     * @param report        Whether to print the results, false for a warm-up round.
+     */
+    private static void evolveConcurrently(int threadCount, boolean transactional, boolean report) {
+        int count = 60_000;
+        int attempts = 40_000;
+        Inventory inventory = Fixtures.fill(new Inventory(true), Fixtures.firstLevelCreatures(count, 3));
+        Object monitor = new Object();
+        AtomicLong evolutions = new AtomicLong();
+        Thread[] threads = new Thread[threadCount];
+        for (int t = 0; t < threadCount; t++) {
+            int seed = t;
+            threads[t] = new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                List<Creature> creatures = inventory.getCreatures();
+                long done = 0;
+                for (int i = 0; i < attempts / threadCount && !creatures.isEmpty(); i++) {
+                    if ((i & 4095) == 0) {
+                        creatures = inventory.getCreatures();
+                    }
+                    Creature first = creatures.get(random.nextInt(creatures.size()));
+                    Creature second = creatures.get(random.nextInt(creatures.size()));
+                    for (int retry = 0; retry < 8 && !second.getName().equals(first.getName()); retry++) {
+                        second = creatures.get(random.nextInt(creatures.size()));
+                    }
+                    boolean evolved;
+                    if (transactional) {
+                        evolved = inventory.evolveCreature(first, second);
+                    } else {
+                        synchronized (monitor) {
+                            evolved = inventory.evolveCreature(first, second);
+                        }
+                    }
+                    done += evolved ? 1 : 0;
+                }
+                evolutions.addAndGet(done);
+            });
+        }
+        long start = System.nanoTime();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        try {
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        if (report) {
+            System.out.printf("%d threads, %-13s %,10.0f attempts/s %,10.0f evolutions/s (%,d evolutions)%n",
+                    threadCount, transactional ? "transactions:" : "global lock:", attempts / seconds,
+                    evolutions.get() / seconds, evolutions.get());
+        }
+    }
+
+    /**
+     * Measures saving an inventory of a million creatures, opening the save, reading a
+     * few creatures lazily and loading the whole save into an inventory, and checks
+     * that the loaded inventory matches the saved one.
+     */
+    public static void saveGame() {
+        int count = 1_000_000;
+        Creature[] creatures = Fixtures.cyclingCreatures(count);
+        for (int i = 0; i < count; i++) {
+            creatures[i].setHealth(i % 51);
+        }
+        Inventory inventory = Fixtures.fill(new Inventory(), creatures);
+        inventory.setActiveCreature(inventory.getCreatures().get(count / 3));
+        try {
+            Path path = Files.createTempFile("savegame", ".sav");
+            try {
+                for (int run = 0; run < 3; run++) {
+                    long start = System.nanoTime();
+                    SaveGame.write(path, inventory);
+                    double writeMillis = (System.nanoTime() - start) / 1e6;
+
+                    start = System.nanoTime();
+                    SaveGame save = SaveGame.open(path);
+                    long peek = save.getCreature(count - 1).getId() + save.getCreature(0).getId();
+                    double openMicros = (System.nanoTime() - start) / 1e3;
+
+                    start = System.nanoTime();
+                    Inventory loaded = new Inventory();
+                    save.loadInto(loaded);
+                    double loadMillis = (System.nanoTime() - start) / 1e6;
+                    sink += peek;
+
+                    List<Creature> expected = inventory.getCreatures();
+                    List<Creature> actual = loaded.getCreatures();
+                    boolean same = expected.equals(actual) && loaded.getActiveCreature().equals(inventory.getActiveCreature())
+                            && actual.get(count / 2).getHealth() == expected.get(count / 2).getHealth();
+                    System.out.printf("%,d creatures (%d MB): save %.0f ms, open and read 2 creatures %.0f us, "
+                                    + "full load %.0f ms; round trip %s%n", count, Files.size(path) >> 20, writeMillis,
+                            openMicros, loadMillis, same ? "ok" : "FAILED");
+                }
+            } finally {
+                Files.delete(path);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Measures inventory changes with and without the journal, and the time until a
+     * change is synced to disk. Uses small segments so snapshots are taken during the
+     * run, then reopens the journal and checks that the replayed inventory matches.
+     */
+    public static void inventoryJournal() {
+        int operations = 200_000;
+        try {
+            Path directory = Files.createTempDirectory("inventoryjournal");
+            try {
+                for (int run = 0; run < 3; run++) {
+                    long start = System.nanoTime();
+                    sink += changeInventory(new Inventory(), operations, run);
+                    double plainNanos = (double) (System.nanoTime() - start) / operations;
+
+                    Inventory inventory = new Inventory();
+                    InventoryJournal journal = InventoryJournal.open(directory.resolve("run" + run), inventory, 64 << 10);
+                    start = System.nanoTime();
+                    sink += changeInventory(inventory, operations, run);
+                    double journaledNanos = (double) (System.nanoTime() - start) / operations;
+
+                    int flushes = 200;
+                    start = System.nanoTime();
+                    for (int i = 0; i < flushes; i++) {
+                        inventory.setCreatureHealth(inventory.getActiveCreature(), i % 51);
+                        journal.flush();
+                    }
+                    double flushMicros = (System.nanoTime() - start) / 1e3 / flushes;
+                    long segments = journal.getSegment();
+                    long records = journal.getAppended();
+                    journal.close();
+
+                    Inventory replayed = new Inventory();
+                    start = System.nanoTime();
+                    InventoryJournal reopened = InventoryJournal.open(directory.resolve("run" + run), replayed);
+                    double replayMillis = (System.nanoTime() - start) / 1e6;
+                    reopened.close();
+
+                    List<Creature> expected = inventory.getCreatures();
+                    List<Creature> actual = replayed.getCreatures();
+                    boolean same = expected.equals(actual) && replayed.getActiveCreature().equals(inventory.getActiveCreature());
+                    for (int i = 0; same && i < expected.size(); i++) {
+                        same = expected.get(i).getHealth() == actual.get(i).getHealth();
+                    }
+                    System.out.printf("%,d changes: %.0f ns without journal, %.0f ns journaled; sync after a change %.0f us; "
+                                    + "%,d records in %d segments; replay of %,d creatures %.0f ms %s%n", operations,
+                            plainNanos, journaledNanos, flushMicros, records, segments, actual.size(), replayMillis,
+                            same ? "ok" : "FAILED");
+                }
+            } finally {
+                try (Stream<Path> files = Files.walk(directory)) {
+                    for (Path file : files.sorted(Comparator.reverseOrder()).toArray(Path[]::new)) {
+                        Files.delete(file);
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Measures fetching a sorted, filtered page of 50 creatures from an inventory of a
+     * million creatures through the query indexes, against filtering and sorting the
+     * creature list with a stream. {@link InventoryQueryCheck} checks that both find
+     * the same creatures.
+     */
+    public static void query() {
+        int count = 1_000_000;
+        int limit = 50;
+        Creature[] creatures = Fixtures.randomCreatures(count, 42);
+        SplittableRandom random = new SplittableRandom(42);
+        for (Creature creature : creatures) {
+            creature.setHealth(random.nextInt(101));
+        }
+        Inventory inventory = Fixtures.fill(new Inventory(), creatures);
+        long middleId = inventory.getCreatures().get(count / 2).getId();
+        Map<String, InventoryQuery> queries = new LinkedHashMap<>();
+        queries.put("type", InventoryQuery.builder().type(CreatureType.WATER).build());
+        queries.put("family and level", InventoryQuery.builder().family(Species.byId(0).getFamily()).level(1).build());
+        queries.put("type and health", InventoryQuery.builder().type(CreatureType.FIRE).health(40, 45).build());
+        queries.put("name prefix", InventoryQuery.builder().namePrefix(Species.byId(3).getName().substring(0, 2)).build());
+        queries.put("type, newest", InventoryQuery.builder().type(CreatureType.WATER).order(InventoryQuery.Order.NEWEST_FIRST).build());
+        queries.put("health", InventoryQuery.builder().health(40, 45).build());
+        queries.put("rare health", InventoryQuery.builder().health(100, 100).build());
+        for (Map.Entry<String, InventoryQuery> entry : queries.entrySet()) {
+            InventoryQuery query = entry.getValue();
+            double firstNanos = measure(20, 1, () -> inventory.query(query, limit).getLastId());
+            double middleNanos = measure(20, 1, () -> inventory.query(query, middleId, limit).getLastId());
+            double streamNanos = measure(2, 1, () -> streamPage(inventory, query, middleId, limit).size());
+            System.out.printf("%-17s first page %6.1f us, middle page %6.1f us, stream %8.1f us, %,d matches%n",
+                    entry.getKey(), firstNanos / 1e3, middleNanos / 1e3, streamNanos / 1e3, inventory.count(query));
+        }
+    }
+
+    /**
+     * Measures refreshing a combo box after a capture and after an evolution, by
+     * reloading every creature as the windows used to and by applying the inventory's
+     * change events through an {@link InventoryComboBoxModel}, and checks that both
+     * combo boxes list the same creatures.
+     */
+    public static void comboModel() {
+        for (int count : new int[]{1_000, 10_000, 100_000}) {
+            Inventory inventory = Fixtures.fill(new Inventory(), Fixtures.cyclingCreatures(count));
+            JComboBox<Creature> reloaded = new JComboBox<>();
+            InventoryComboBoxModel model = new InventoryComboBoxModel(inventory);
+            JComboBox<Creature> incremental = new JComboBox<>(model);
+            try {
+                SwingUtilities.invokeAndWait(() -> { });
+                int rounds = 20;
+                double[] reloadMicros = new double[2];
+                double[] deltaMicros = new double[2];
+                for (int round = 0; round < rounds; round++) {
+                    for (int change = 0; change < 2; change++) {
+                        if (change == 0) {
+                            inventory.addCreature(new Creature(Species.byId(round % Species.count())));
+                        } else {
+                            Creature creature = inventory.getCreatures().get(round);
+                            inventory.evolveCreature(creature, inventory.findEvolutionPartner(creature));
+                        }
+                        long start = System.nanoTime();
+                        SwingUtilities.invokeAndWait(() -> {
+                            reloaded.removeAllItems();
+                            for (Creature creature : inventory.getCreatures()) {
+                                reloaded.addItem(creature);
+                            }
+                        });
+                        reloadMicros[change] += (System.nanoTime() - start) / 1e3 / rounds;
+                        start = System.nanoTime();
+                        SwingUtilities.invokeAndWait(() -> { });
+                        deltaMicros[change] += (System.nanoTime() - start) / 1e3 / rounds;
+                    }
+                }
+                boolean same = reloaded.getItemCount() == incremental.getItemCount();
+                for (int i = 0; same && i < reloaded.getItemCount(); i++) {
+                    same = reloaded.getItemAt(i).equals(incremental.getItemAt(i));
+                }
+                System.out.printf("%,7d creatures: capture %,9.1f us reloaded, %6.1f us with events; "
+                                + "evolution %,9.1f us reloaded, %6.1f us with events %s%n", count, reloadMicros[0],
+                        deltaMicros[0], reloadMicros[1], deltaMicros[1], same ? "ok" : "MISMATCH");
+            } catch (InterruptedException | InvocationTargetException ex) {
+                throw new IllegalStateException(ex);
+            } finally {
+                model.detach();
+            }
+        }
+    }
+
+    private static List<Creature> streamPage(Inventory inventory, InventoryQuery query, long afterId, int limit) {
+        boolean newestFirst = query.getOrder() == InventoryQuery.Order.NEWEST_FIRST;
+        Comparator<Creature> byId = Comparator.comparingLong(Creature::getId);
+        return inventory.getCreatures().stream()
+                .filter(creature -> (newestFirst ? creature.getId() < afterId || afterId == -1 : creature.getId() > afterId)
+                        && query.matches(creature))
+                .sorted(newestFirst ? byId.reversed() : byId)
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Captures, releases, heals and switches creatures in an inventory.
+     *
+     * @param inventory  The inventory to change.
+     * @param operations The number of changes.
+     * @param seed       The seed of the changes.
+     * @return The number of creatures left in the inventory.
+     */
+    private static long changeInventory(Inventory inventory, int operations, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Creature> owned = new ArrayList<>();
+        for (int i = 0; i < operations; i++) {
+            int action = random.nextInt(10);
+            if (action < 5 || owned.size() < 2) {
+                Creature creature = new Creature(Species.byId(random.nextInt(Species.count())));
+                inventory.addCreature(creature);
+                owned.add(creature);
+            } else if (action < 7) {
+                int index = random.nextInt(owned.size());
+                Creature released = owned.get(index);
+                owned.set(index, owned.get(owned.size() - 1));
+                owned.remove(owned.size() - 1);
+                if (released.equals(inventory.getActiveCreature())) {
+                    inventory.setActiveCreature(owned.get(0));
+                }
+                inventory.removeCreature(released);
+            } else if (action < 9) {
+                inventory.setCreatureHealth(owned.get(random.nextInt(owned.size())), random.nextInt(51));
+            } else {
+                inventory.setActiveCreature(owned.get(random.nextInt(owned.size())));
+            }
+        }
+        return inventory.size();
+    }
+
+    /**
+     * Runs a task on several threads at once, after one untimed warm-up run.
+     *
+     * @param threads    The number of threads.
+     * @param operations The operations each thread performs.
+     * @param task       The task, given the index of its thread.
+     * @return The wall-clock time per operation, in nanoseconds.
+     */
+    private static double runThreads(int threads, int operations, IntConsumer task) {
+        long elapsed = 0;
+        for (int run = 0; run < 2; run++) {
+            CountDownLatch start = new CountDownLatch(1);
+            Thread[] workers = new Thread[threads];
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                workers[t] = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException ex) {
+                        return;
+                    }
+                    task.accept(thread);
+                });
+                workers[t].start();
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            try {
+                for (Thread worker : workers) {
+                    worker.join();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            elapsed = System.nanoTime() - begin;
+        }
+        return (double) elapsed / ((long) threads * operations);
+    }
+
+    /**
+     * Gets the heap in use after a garbage collection.
+     *
+     * @return The used heap in bytes.
+     */
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * The fields a creature held before species data was shared, used by {@link #species()}.
+     */
+    private static class LegacyCreature {
+        private final long id;
+        private final String name;
+        private final CreatureType type;
+        private final String family;
+        private final int evolutionLevel;
+        private final int health;
+        private final int maxHealth;
+        private final String iconPath;
+
+        LegacyCreature(long id, String name, CreatureType type, String family, int evolutionLevel, String iconPath, int maxHealth) {
+            this.id = id;
+            this.name = name;
+            this.type = type;
+            this.family = family;
+            this.evolutionLevel = evolutionLevel;
+            this.iconPath = iconPath;
+            this.health = maxHealth;
+            this.maxHealth = maxHealth;
+        }
+    }
+
+    /**
+     * Plays battles that attack twice and then try a capture.
+     *
+     * @param count   The number of battles.
+     * @param journal The journal to record to, or null.
+     * @return The number of captures.
+     */
+    private static long playBattles(int count, BattleJournal journal) {
+        SplittableRandom random = RandomService.stream(0);
+        long captures = 0;
+        for (int i = 0; i < count; i++) {
+            Creature player = EL1Creatures.createCreature(i % EL1Creatures.SPECIES_COUNT + 1);
+            Creature enemy = EL1Creatures.createCreature((i / EL1Creatures.SPECIES_COUNT) % EL1Creatures.SPECIES_COUNT + 1);
+            Inventory inventory = new Inventory();
+            inventory.addCreature(player);
+            Battle battle = new Battle(player, enemy, inventory, random);
+            battle.setJournal(journal);
+            battle.attack();
+            battle.attack();
+            battle.tryCapture();
+            if (battle.isEnemyCaught()) {
+                captures++;
+            }
+        }
+        return captures;
+    }
+
+    /**
+     * Builds a type chart where every type is strong against one other type and weak against another.
+     *
+     * @param typeCount The number of types.
+     * @param random    The random number generator choosing the matchups.
+     * @return The type chart.
+     */
+    private static TypeChart randomChart(int typeCount, Random random) {
+        List<String> typeNames = new ArrayList<>();
+        for (int i = 0; i < typeCount; i++) {
+            typeNames.add("T" + i);
+        }
+        StringBuilder chart = new StringBuilder();
+        for (int i = 0; i < typeCount; i++) {
+            chart.append("T").append(i).append(" T").append(random.nextInt(typeCount)).append(" 150\n");
+            chart.append("T").append(i).append(" T").append(random.nextInt(typeCount)).append(" 50\n");
+        }
+        try {
+            return TypeChart.parse(new StringReader(chart.toString()), typeNames);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Runs a workload repeatedly and measures the average time per operation.
+     *
+     * @param rounds     The number of timed rounds.
+     * @param operations The number of operations done by one round.
+     * @param workload   The workload, returning a value that depends on its work.
+     * @return The average time per operation in nanoseconds.
+     */
+    static double measure(int rounds, long operations, Workload workload) {
+        for (int i = 0; i < WARMUP_ROUNDS * rounds; i++) {
+            sink += workload.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            sink += workload.run();
+        }
+        return (double) (System.nanoTime() - start) / rounds / operations;
+    }
+
+    /**
+     * A unit of benchmarked work.
+     */
+    interface Workload {
+        long run();
+    }
+}
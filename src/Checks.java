@@ -0,0 +1,78 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The Checks class runs the correctness checks of the performance-sensitive parts of
+ * the game, one class per component, apart from the timings in {@link Benchmarks}.
+ * Run it with the name of a check, e.g. "java Checks store", or without arguments to
+ * run all of them. A failed check throws an {@link AssertionError}, which ends the
+ * run with an error.
+ *
+ */
+public class Checks {
+
+    /**
+     * Runs the checks named on the command line, or all checks if none are named.
+     *
+     * @param args The names of the checks to run.
+     */
+    public static void main(String[] args) {
+        Map<String, Runnable> checks = new LinkedHashMap<>();
+        checks.put("store", CreatureStoreCheck::run);
+        checks.put("snapshot", InventorySnapshotCheck::run);
+        checks.put("evolveall", EvolveAllCheck::run);
+        checks.put("query", InventoryQueryCheck::run);
+        checks.put("evolvetransactions", EvolutionTransactionCheck::run);
+        checks.put("planner", EvolutionPlannerCheck::run);
+        String[] names = args.length > 0 ? args : checks.keySet().toArray(new String[0]);
+        for (String name : names) {
+            Runnable check = checks.get(name);
+            if (check == null) {
+                throw new IllegalArgumentException("Unknown check: " + name + ", expected one of " + checks.keySet());
+            }
+            check.run();
+            System.out.println(name + ": ok");
+        }
+    }
+
+    /**
+     * Fails the running check unless a condition holds.
+     *
+     * @param condition The condition.
+     * @param message   What went wrong if the condition does not hold.
+     * @throws AssertionError if the condition does not hold.
+     */
+    static void require(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    /**
+     * Fails the running check unless a value is the expected one.
+     *
+     * @param expected The expected value.
+     * @param actual   The value found.
+     * @param what     What the value is.
+     * @throws AssertionError if the values differ.
+     */
+    static void requireEqual(long expected, long actual, String what) {
+        if (expected != actual) {
+            throw new AssertionError(what + ": expected " + expected + ", got " + actual);
+        }
+    }
+
+    /**
+     * Fails the running check unless a value is the expected one.
+     *
+     * @param expected The expected value.
+     * @param actual   The value found.
+     * @param what     What the value is.
+     * @throws AssertionError if the values differ.
+     */
+    static void requireEqual(Object expected, Object actual, String what) {
+        if (!expected.equals(actual)) {
+            throw new AssertionError(what + ": expected " + expected + ", got " + actual);
+        }
+    }
+}
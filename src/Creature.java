@@ -1,27 +1,132 @@
-import java.util.Objects;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 
 
 /**
- * The Creature class represents a creature in a game. It encapsulates
- * properties such as name, type, family, evolution level, health, maximum health,
- * and an icon path for displaying the creature's information and image.
+ * The Creature class represents a creature in a game. Each creature has its own
+ * ID and current health; its name, type, family, evolution level, maximum health
+ * and icon path come from the {@link Species} it belongs to, which is shared by
+ * all creatures of that species.
  *
  */
 public class Creature {
 
     private static final AtomicLong ID_GENERATOR = new AtomicLong(0);
+    private static final int ID_BLOCK_SIZE = 1024;//The number of IDs a thread reserves at a time for bulk spawns.
+    private static final ThreadLocal<long[]> ID_BLOCK = ThreadLocal.withInitial(() -> new long[2]);//The next and end ID of the thread's reserved block.
+    private static final AtomicLong ID_FLOOR = new AtomicLong(0);//The lowest ID a reserved block may still hand out.
     private final long id; // Unique identifier for each creature
-    private final String name;//The name of the creature.
-    private final CreatureType type;//type of the cretaure
-    private final String family;//family to whih the creature belongs
-    private final int evolutionLevel;//The evolution level of the creature.
+    private final Species species;//The species of the creature.
     private int health;//The current health of the creature.
-    private final int maxHealth;  //The maximum health that the creature can have.
-    private final String iconPath;//The file path to the icon representing the creature.
 
     /**
-     * Constructs a Creature object with the specified attributes.
+     * Constructs a Creature object of the given species with full health.
+     *
+     * @param species The species of the creature.
+     */
+    public Creature(Species species) {
+        this.species = species;
+        this.health = species.getMaxHealth();
+        this.id = ID_GENERATOR.getAndIncrement();
+    }
+
+    private Creature(Species species, long id) {
+        this.species = species;
+        this.health = species.getMaxHealth();
+        this.id = id;
+    }
+
+    /**
+     * Recreates a creature that already has an ID, such as one kept in a {@link CreatureStore}.
+     *
+     * @param id      The ID of the creature.
+     * @param species The species of the creature.
+     * @param health  The current health of the creature.
+     * @return The creature.
+     */
+    static Creature restore(long id, Species species, int health) {
+        Creature creature = new Creature(species, id);
+        creature.health = health;
+        return creature;
+    }
+
+    /**
+     * Gets the ID the next creature created one at a time will receive.
+     *
+     * @return The next ID of the shared counter.
+     */
+    static long peekNextId() {
+        return ID_GENERATOR.get();
+    }
+
+    /**
+     * Moves the shared ID counter forward so that it is at least the given value, so
+     * creatures that already have IDs, such as restored ones, never share an ID with
+     * new creatures. Blocks that threads reserved below the value are given up, as
+     * their IDs may be in use.
+     *
+     * @param nextId The lowest ID new creatures may receive.
+     */
+    static void advanceNextId(long nextId) {
+        ID_GENERATOR.accumulateAndGet(nextId, Math::max);
+        ID_FLOOR.accumulateAndGet(nextId, Math::max);
+    }
+
+    /**
+     * Creates many creatures of one species with full health. IDs are taken from a
+     * block reserved by the calling thread, so threads spawning at the same time do
+     * not contend on the shared ID counter. IDs stay unique across all creatures, but
+     * creatures spawned later may have lower IDs than ones spawned earlier.
+     *
+     * @param species The species of the creatures.
+     * @param count   The number of creatures to create.
+     * @return The new creatures.
+     * @throws IllegalArgumentException if the count is negative.
+     */
+    public static List<Creature> spawn(Species species, int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must not be negative: " + count);
+        }
+        Creature[] creatures = new Creature[count];
+        long[] block = ID_BLOCK.get();
+        int created = 0;
+        while (created < count) {
+            if (block[0] == block[1] || block[0] < ID_FLOOR.get()) {
+                long size = Math.max(ID_BLOCK_SIZE, count - created);
+                block[0] = ID_GENERATOR.getAndAdd(size);
+                block[1] = block[0] + size;
+            }
+            int available = (int) Math.min(block[1] - block[0], count - created);
+            long id = block[0];
+            for (int i = 0; i < available; i++) {
+                creatures[created++] = new Creature(species, id++);
+            }
+            block[0] = id;
+        }
+        return Arrays.asList(creatures);
+    }
+
+    /**
+     * Creates many creatures of the registered species of a family at an evolution level.
+     *
+     * @param familyIndex The index of the family in the catalog.
+     * @param level       The evolution level.
+     * @param count       The number of creatures to create.
+     * @return The new creatures.
+     * @throws IllegalArgumentException if the family has no species at that level or the count is negative.
+     */
+    public static List<Creature> spawn(int familyIndex, int level, int count) {
+        Species species = Species.of(familyIndex, level);
+        if (species == null) {
+            throw new IllegalArgumentException("No species in family " + familyIndex + " at level " + level);
+        }
+        return spawn(species, count);
+    }
+
+    /**
+     * Constructs a Creature object with the specified attributes. The registered
+     * species is used when it matches the attributes, see {@link Species#intern}.
      *
      * @param name         The name of the creature.
      * @param type         The type of the creature (e.g., FIRE, WATER, NATURE).
@@ -31,14 +136,7 @@ public class Creature {
      * @param maxHealth    The maximum health that the creature can have.
      */
     public Creature(String name, CreatureType type, String family, int evolutionLevel, String iconPath, int maxHealth) {
-        this.name = name;
-        this.type = type;
-        this.family = family;
-        this.evolutionLevel = evolutionLevel;
-        this.iconPath = iconPath;
-        this.health = maxHealth; // Initialize health to maxHealth
-        this.maxHealth = maxHealth; // Set maxHealth
-        this.id = ID_GENERATOR.getAndIncrement();
+        this(Species.intern(name, type, family, evolutionLevel, iconPath, maxHealth));
     }
 
 
@@ -48,7 +146,7 @@ public class Creature {
      * @return The maximum health of the creature.
      */
     public int getMaxHealth() {
-        return maxHealth;
+        return species.getMaxHealth();
     }
 
     /**
@@ -69,6 +167,15 @@ public class Creature {
         this.health = health;
     }
 
+    /**
+     * Gets the species of the creature.
+     *
+     * @return The species of the creature.
+     */
+    public Species getSpecies() {
+        return species;
+    }
+
     /**
      * Retrieves the unique identifier for the creature.
      *
@@ -101,7 +208,7 @@ public class Creature {
     
     @Override
     public int hashCode() {
-        return Objects.hash(id);
+        return Long.hashCode(id);
     }
 
     /**
@@ -110,7 +217,7 @@ public class Creature {
      * @return The name of the creature.
      */
     public String getName() {
-        return name;
+        return species.getName();
     }
 
      /**
@@ -119,7 +226,7 @@ public class Creature {
      * @return The type of the creature.
      */
     public CreatureType getType() {
-        return type;
+        return species.getType();
     }
 
     /**
@@ -128,7 +235,7 @@ public class Creature {
      * @return The family of the creature.
      */
     public String getFamily() {
-        return family;
+        return species.getFamily();
     }
 
     /**
@@ -137,7 +244,7 @@ public class Creature {
      * @return The evolution level of the creature.
      */
     public int getEvolutionLevel() {
-        return evolutionLevel;
+        return species.getEvolutionLevel();
     }
 
     /**
@@ -147,6 +254,7 @@ public class Creature {
      */
 
     public String getIconPath() {
+        String iconPath = species.getIconPath();
         return iconPath.startsWith("/") ? iconPath.substring(1) : iconPath;
     }
 
@@ -156,6 +264,6 @@ public class Creature {
      * @return A string containing the creature's name, type, family, and evolution level.
      */
     public String toString() {
-        return "Name: " + name + ", Type: " + type + ", Family: " + family + ", Evolution Level: " + evolutionLevel;
+        return "Name: " + getName() + ", Type: " + getType() + ", Family: " + getFamily() + ", Evolution Level: " + getEvolutionLevel();
     }
 }
@@ -0,0 +1,164 @@
+import java.util.Arrays;
+
+/**
+ * The CreatureIdList class holds creatures sorted by ID, so a range of IDs can be
+ * found with a binary search and read in order. Creatures normally arrive with
+ * increasing IDs and are appended; a creature with a lower ID is inserted in place.
+ *
+ * <p>Removing a creature leaves a hole that keeps its ID, so the IDs stay sorted
+ * without moving the rest of the list. The holes are closed once they outnumber the
+ * creatures.
+ *
+ */
+public class CreatureIdList {
+    private static final int MIN_CAPACITY = 8;
+
+    private long[] ids = new long[MIN_CAPACITY];//The creature IDs in ascending order, including those of holes.
+    private Creature[] creatures = new Creature[MIN_CAPACITY];//The creatures by position, with null holes left by removals.
+    private int end;//The number of used positions, holes included.
+    private int size;//The number of creatures in the list.
+
+    /**
+     * Gets the number of creatures in the list.
+     *
+     * @return The number of creatures.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the number of positions in use, holes included. Positions from 0 up to this
+     * value can be read with {@link #get(int)}.
+     *
+     * @return The end position.
+     */
+    public int end() {
+        return end;
+    }
+
+    /**
+     * Adds a creature at the position of its ID. A creature whose ID is already in the
+     * list is not added again.
+     *
+     * @param creature The creature.
+     */
+    public void add(Creature creature) {
+        long id = creature.getId();
+        int position = end;
+        if (end > 0 && ids[end - 1] >= id) {
+            position = firstAtLeast(id);
+            if (position < end && ids[position] == id) {
+                if (creatures[position] == null) {
+                    creatures[position] = creature;
+                    size++;
+                }
+                return;
+            }
+        }
+        if (end == ids.length) {
+            if (end - size > size) {
+                compact();
+                position = firstAtLeast(id);
+            } else {
+                int capacity = end + (end >> 1) + 1;
+                ids = Arrays.copyOf(ids, capacity);
+                creatures = Arrays.copyOf(creatures, capacity);
+            }
+        }
+        System.arraycopy(ids, position, ids, position + 1, end - position);
+        System.arraycopy(creatures, position, creatures, position + 1, end - position);
+        ids[position] = id;
+        creatures[position] = creature;
+        end++;
+        size++;
+    }
+
+    /**
+     * Removes the creature with the given ID.
+     *
+     * @param id The creature ID.
+     * @return true if the creature was in the list, false otherwise.
+     */
+    public boolean remove(long id) {
+        int position = firstAtLeast(id);
+        if (position == end || ids[position] != id || creatures[position] == null) {
+            return false;
+        }
+        creatures[position] = null;
+        size--;
+        if (position == end - 1) {
+            while (end > 0 && creatures[end - 1] == null) {
+                end--;
+            }
+        } else if (end - size > size && end > MIN_CAPACITY) {
+            compact();
+        }
+        return true;
+    }
+
+    /**
+     * Removes all creatures from the list.
+     */
+    public void clear() {
+        Arrays.fill(creatures, 0, end, null);
+        end = 0;
+        size = 0;
+    }
+
+    /**
+     * Finds the first position whose ID is greater than the given ID.
+     *
+     * @param id The ID; use -1 to start at the first creature.
+     * @return The position, or {@link #end()} if every ID is lower or equal.
+     */
+    public int firstAfter(long id) {
+        return id == Long.MAX_VALUE ? end : firstAtLeast(id + 1);
+    }
+
+    private int firstAtLeast(long id) {
+        int low = 0;
+        int high = end;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (ids[middle] < id) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Gets the creature at a position.
+     *
+     * @param position The position, below {@link #end()}.
+     * @return The creature, or null if the position is a hole.
+     */
+    public Creature get(int position) {
+        return creatures[position];
+    }
+
+    /**
+     * Gets the ID at a position. Holes keep the ID of the creature that was removed.
+     *
+     * @param position The position, below {@link #end()}.
+     * @return The creature ID.
+     */
+    public long getId(int position) {
+        return ids[position];
+    }
+
+    private void compact() {
+        int next = 0;
+        for (int i = 0; i < end; i++) {
+            if (creatures[i] != null) {
+                ids[next] = ids[i];
+                creatures[next++] = creatures[i];
+            }
+        }
+        Arrays.fill(creatures, next, end, null);
+        end = next;
+    }
+}
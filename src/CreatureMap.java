@@ -0,0 +1,304 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * The CreatureMap class holds creatures keyed by their ID and remembers the order
+ * they were added in. Lookups go through an open-addressing hash table of primitive
+ * {@code long} keys with linear probing, so finding, adding and removing a creature
+ * take constant time and never box the ID or call {@link Creature#equals}.
+ *
+ * <p>The table maps each ID to a position in a dense array of creatures kept in
+ * insertion order. Removing a creature leaves a hole in that array, and the array is
+ * compacted once holes outnumber creatures. Deletions shift later entries of the probe
+ * run back instead of leaving tombstones in the table.
+ *
+ */
+public class CreatureMap implements Iterable<Creature> {
+    private static final int MIN_CAPACITY = 16;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;//Spreads sequential IDs over the table.
+
+    private long[] keys;//The creature IDs, by table slot.
+    private int[] positions;//The position of each slot's creature in the order array plus one, or 0 if the slot is empty.
+    private int shift;//The right shift that turns a mixed key into a table slot.
+    private Creature[] order;//The creatures in insertion order, with null holes left by removals.
+    private int end;//The number of used positions of the order array, holes included.
+    private int size;//The number of creatures in the map.
+
+    /**
+     * Constructs an empty map.
+     */
+    public CreatureMap() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty map with room for the given number of creatures.
+     *
+     * @param expected The number of creatures to make room for.
+     */
+    public CreatureMap(int expected) {
+        allocate(tableCapacity(expected));
+        this.order = new Creature[Math.max(MIN_CAPACITY, expected)];
+    }
+
+    private static int tableCapacity(int expected) {
+        return Integer.highestOneBit(Math.max(MIN_CAPACITY, expected) * 2 - 1) << 1;
+    }
+
+    /**
+     * Makes room for the given number of creatures, so adding them does not resize the map.
+     *
+     * @param expected The number of creatures to make room for.
+     */
+    public void ensureCapacity(int expected) {
+        int capacity = tableCapacity(expected);
+        if (capacity > keys.length) {
+            rehash(capacity);
+        }
+        if (expected > order.length) {
+            order = Arrays.copyOf(order, expected);
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        positions = new int[capacity];
+        shift = 64 - Integer.numberOfTrailingZeros(capacity);
+    }
+
+    private int home(long key) {
+        return (int) ((key * GOLDEN_GAMMA) >>> shift);
+    }
+
+    /**
+     * Finds the table slot of an ID.
+     *
+     * @param id The creature ID.
+     * @return The slot, or -1 if the ID is not in the map.
+     */
+    private int find(long id) {
+        int mask = keys.length - 1;
+        for (int slot = home(id); ; slot = (slot + 1) & mask) {
+            if (positions[slot] == 0) {
+                return -1;
+            }
+            if (keys[slot] == id) {
+                return slot;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of creatures in the map.
+     *
+     * @return The number of creatures.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if a creature with the given ID is in the map.
+     *
+     * @param id The creature ID.
+     * @return true if the map holds the ID, false otherwise.
+     */
+    public boolean containsId(long id) {
+        return find(id) >= 0;
+    }
+
+    /**
+     * Gets the creature with the given ID.
+     *
+     * @param id The creature ID.
+     * @return The creature, or null if the map does not hold the ID.
+     */
+    public Creature get(long id) {
+        int slot = find(id);
+        return slot < 0 ? null : order[positions[slot] - 1];
+    }
+
+    /**
+     * Adds a creature after all creatures already in the map.
+     *
+     * @param creature The creature.
+     * @return true if the creature was added, false if a creature with its ID was already in the map.
+     */
+    public boolean add(Creature creature) {
+        long id = creature.getId();
+        if ((size + 1) * 2 > keys.length) {
+            rehash(keys.length << 1);
+        }
+        int mask = keys.length - 1;
+        int slot = home(id);
+        while (positions[slot] != 0) {
+            if (keys[slot] == id) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (end == order.length) {
+            if (end - size > size) {
+                compact();
+            } else {
+                order = Arrays.copyOf(order, end + (end >> 1) + 1);
+            }
+        }
+        order[end] = creature;
+        keys[slot] = id;
+        positions[slot] = ++end;
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes the creature with the given ID.
+     *
+     * @param id The creature ID.
+     * @return The removed creature, or null if the map did not hold the ID.
+     */
+    public Creature remove(long id) {
+        int slot = find(id);
+        if (slot < 0) {
+            return null;
+        }
+        int position = positions[slot] - 1;
+        Creature removed = order[position];
+        order[position] = null;
+        size--;
+        deleteSlot(slot);
+        if (position == end - 1) {
+            while (end > 0 && order[end - 1] == null) {
+                end--;
+            }
+        } else if (end - size > size && end > MIN_CAPACITY) {
+            compact();
+        }
+        return removed;
+    }
+
+    /**
+     * Empties a table slot, moving later entries of its probe run back so that every
+     * entry stays reachable from its home slot.
+     */
+    private void deleteSlot(int hole) {
+        int mask = keys.length - 1;
+        int slot = hole;
+        while (true) {
+            slot = (slot + 1) & mask;
+            if (positions[slot] == 0) {
+                break;
+            }
+            int home = home(keys[slot]);
+            // The entry can fill the hole unless its home lies cyclically in (hole, slot].
+            boolean stays = hole <= slot ? hole < home && home <= slot : hole < home || home <= slot;
+            if (!stays) {
+                keys[hole] = keys[slot];
+                positions[hole] = positions[slot];
+                hole = slot;
+            }
+        }
+        positions[hole] = 0;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldPositions = positions;
+        allocate(capacity);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldPositions[i] != 0) {
+                int slot = home(oldKeys[i]);
+                while (positions[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                positions[slot] = oldPositions[i];
+            }
+        }
+    }
+
+    /**
+     * Closes the holes of the order array and points the table at the new positions.
+     */
+    private void compact() {
+        int[] moved = new int[end];
+        int next = 0;
+        for (int i = 0; i < end; i++) {
+            if (order[i] != null) {
+                order[next] = order[i];
+                moved[i] = ++next;
+            }
+        }
+        Arrays.fill(order, next, end, null);
+        end = next;
+        for (int slot = 0; slot < positions.length; slot++) {
+            if (positions[slot] != 0) {
+                positions[slot] = moved[positions[slot] - 1];
+            }
+        }
+    }
+
+    /**
+     * Removes all creatures from the map.
+     */
+    public void clear() {
+        Arrays.fill(positions, 0);
+        Arrays.fill(order, 0, end, null);
+        end = 0;
+        size = 0;
+    }
+
+    /**
+     * Iterates over the creatures of the map, in insertion order. The map must not be
+     * changed during the iteration.
+     *
+     * @return The iterator.
+     */
+    @Override
+    public Iterator<Creature> iterator() {
+        return new Iterator<Creature>() {
+            private int next = skipHoles(0);
+
+            @Override
+            public boolean hasNext() {
+                return next < end;
+            }
+
+            @Override
+            public Creature next() {
+                if (next >= end) {
+                    throw new NoSuchElementException();
+                }
+                Creature creature = order[next];
+                next = skipHoles(next + 1);
+                return creature;
+            }
+        };
+    }
+
+    private int skipHoles(int position) {
+        while (position < end && order[position] == null) {
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * Copies the creatures of the map, in insertion order.
+     *
+     * @return A new list of the creatures.
+     */
+    public List<Creature> toList() {
+        List<Creature> list = new ArrayList<>(size);
+        for (int i = 0; i < end; i++) {
+            if (order[i] != null) {
+                list.add(order[i]);
+            }
+        }
+        return list;
+    }
+}
@@ -0,0 +1,379 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The CreatureStore class holds a large number of creatures in primitive arrays
+ * instead of one heap object per creature. Each creature is packed into a single
+ * {@code long} holding its species ID, evolution level, current health and flags,
+ * next to a second {@code long} holding its creature ID. Only registered species
+ * can be stored, since the species is kept by ID.
+ *
+ * <p>Creatures are converted to and from {@link Creature} objects only at the API
+ * boundary; scans go through a {@link Cursor}, which allocates nothing per creature.
+ *
+ */
+public class CreatureStore {
+    public static final int FLAG_ACTIVE = 1;//Marks the player's active creature.
+
+    private static final int SPECIES_BITS = 24;
+    private static final int LEVEL_BITS = 8;
+    private static final int HEALTH_BITS = 16;
+    private static final int FLAG_BITS = 16;
+    private static final int LEVEL_SHIFT = SPECIES_BITS;
+    private static final int HEALTH_SHIFT = LEVEL_SHIFT + LEVEL_BITS;
+    private static final int FLAG_SHIFT = HEALTH_SHIFT + HEALTH_BITS;
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private long[] packed;//The species ID, level, health and flags of each creature.
+    private long[] ids;//The creature ID of each creature.
+    private int size;//The number of creatures in the store.
+
+    /**
+     * Constructs an empty store.
+     */
+    public CreatureStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty store with room for the given number of creatures.
+     *
+     * @param capacity The number of creatures to make room for.
+     */
+    public CreatureStore(int capacity) {
+        this.packed = new long[Math.max(capacity, 1)];
+        this.ids = new long[packed.length];
+    }
+
+    /**
+     * Creates a store holding the given creatures, in order.
+     *
+     * @param creatures The creatures.
+     * @return The new store.
+     */
+    public static CreatureStore of(Collection<Creature> creatures) {
+        CreatureStore store = new CreatureStore(creatures.size());
+        for (Creature creature : creatures) {
+            store.add(creature);
+        }
+        return store;
+    }
+
+    /**
+     * Packs a creature's data into a single value.
+     *
+     * @param speciesId The ID of the species.
+     * @param level     The evolution level.
+     * @param health    The current health.
+     * @param flags     The flags.
+     * @return The packed value.
+     * @throws IllegalArgumentException if a field does not fit.
+     */
+    public static long pack(int speciesId, int level, int health, int flags) {
+        check("species ID", speciesId, SPECIES_BITS);
+        check("level", level, LEVEL_BITS);
+        check("health", health, HEALTH_BITS);
+        check("flags", flags, FLAG_BITS);
+        return speciesId | (long) level << LEVEL_SHIFT | (long) health << HEALTH_SHIFT | (long) flags << FLAG_SHIFT;
+    }
+
+    private static void check(String field, int value, int bits) {
+        if (value < 0 || value >= 1 << bits) {
+            throw new IllegalArgumentException("The " + field + " " + value + " does not fit in " + bits + " bits");
+        }
+    }
+
+    /**
+     * Gets the species ID of a packed creature.
+     *
+     * @param packed The packed value.
+     * @return The species ID.
+     */
+    public static int speciesId(long packed) {
+        return (int) (packed & (1 << SPECIES_BITS) - 1);
+    }
+
+    /**
+     * Gets the evolution level of a packed creature.
+     *
+     * @param packed The packed value.
+     * @return The evolution level.
+     */
+    public static int level(long packed) {
+        return (int) (packed >>> LEVEL_SHIFT) & (1 << LEVEL_BITS) - 1;
+    }
+
+    /**
+     * Gets the current health of a packed creature.
+     *
+     * @param packed The packed value.
+     * @return The current health.
+     */
+    public static int health(long packed) {
+        return (int) (packed >>> HEALTH_SHIFT) & (1 << HEALTH_BITS) - 1;
+    }
+
+    /**
+     * Gets the flags of a packed creature.
+     *
+     * @param packed The packed value.
+     * @return The flags.
+     */
+    public static int flags(long packed) {
+        return (int) (packed >>> FLAG_SHIFT) & (1 << FLAG_BITS) - 1;
+    }
+
+    /**
+     * Adds a creature to the end of the store.
+     *
+     * @param creature The creature.
+     * @return The index of the creature in the store.
+     * @throws IllegalArgumentException if the creature's species is not registered.
+     */
+    public int add(Creature creature) {
+        return add(creature, 0);
+    }
+
+    /**
+     * Adds a creature to the end of the store with the given flags.
+     *
+     * @param creature The creature.
+     * @param flags    The flags, such as {@link #FLAG_ACTIVE}.
+     * @return The index of the creature in the store.
+     * @throws IllegalArgumentException if the creature's species is not registered.
+     */
+    public int add(Creature creature, int flags) {
+        Species species = creature.getSpecies();
+        if (species.getId() == Species.UNREGISTERED) {
+            throw new IllegalArgumentException("Species " + species + " is not registered");
+        }
+        return add(creature.getId(), pack(species.getId(), species.getEvolutionLevel(), creature.getHealth(), flags));
+    }
+
+    /**
+     * Adds a packed creature to the end of the store.
+     *
+     * @param id     The ID of the creature.
+     * @param packed The packed value, from {@link #pack}.
+     * @return The index of the creature in the store.
+     */
+    public int add(long id, long packed) {
+        if (size == this.packed.length) {
+            int capacity = size + (size >> 1) + 1;
+            this.packed = Arrays.copyOf(this.packed, capacity);
+            this.ids = Arrays.copyOf(ids, capacity);
+        }
+        this.packed[size] = packed;
+        ids[size] = id;
+        return size++;
+    }
+
+    /**
+     * Removes a creature by moving the last creature into its place.
+     *
+     * @param index The index of the creature.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public void removeAt(int index) {
+        checkIndex(index);
+        size--;
+        packed[index] = packed[size];
+        ids[index] = ids[size];
+    }
+
+    /**
+     * Removes all creatures from the store.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Gets the number of creatures in the store.
+     *
+     * @return The number of creatures.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the ID of a creature.
+     *
+     * @param index The index of the creature.
+     * @return The ID of the creature.
+     */
+    public long getId(int index) {
+        checkIndex(index);
+        return ids[index];
+    }
+
+    /**
+     * Gets the packed value of a creature.
+     *
+     * @param index The index of the creature.
+     * @return The packed value.
+     */
+    public long getPacked(int index) {
+        checkIndex(index);
+        return packed[index];
+    }
+
+    /**
+     * Sets the current health of a creature.
+     *
+     * @param index  The index of the creature.
+     * @param health The new health.
+     */
+    public void setHealth(int index, int health) {
+        checkIndex(index);
+        long value = packed[index];
+        packed[index] = pack(speciesId(value), level(value), health, flags(value));
+    }
+
+    /**
+     * Creates a creature object from a creature in the store. The object has the
+     * stored ID, so it equals any other object made from the same creature.
+     *
+     * @param index The index of the creature.
+     * @return The creature.
+     */
+    public Creature toCreature(int index) {
+        checkIndex(index);
+        return Creature.restore(ids[index], Species.byId(speciesId(packed[index])), health(packed[index]));
+    }
+
+    /**
+     * Creates creature objects from every creature in the store.
+     *
+     * @return The creatures, in store order.
+     */
+    public List<Creature> toCreatures() {
+        List<Creature> creatures = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            creatures.add(toCreature(i));
+        }
+        return creatures;
+    }
+
+    /**
+     * Creates a cursor over the creatures of the store. One cursor can scan the store
+     * any number of times with {@link Cursor#reset()}.
+     *
+     * @return The cursor, placed before the first creature.
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+    }
+
+    /**
+     * The Cursor class walks the creatures of a store without creating objects. Its
+     * getters read the creature the cursor is on.
+     */
+    public class Cursor {
+        private int index = -1;//The index of the current creature.
+        private long value;//The packed value of the current creature.
+
+        /**
+         * Moves to the next creature.
+         *
+         * @return true if there is a next creature, false once the end is reached.
+         */
+        public boolean next() {
+            if (index + 1 >= size) {
+                index = size;
+                return false;
+            }
+            value = packed[++index];
+            return true;
+        }
+
+        /**
+         * Moves the cursor back before the first creature.
+         */
+        public void reset() {
+            index = -1;
+        }
+
+        /**
+         * Gets the index of the current creature in the store.
+         *
+         * @return The index.
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * Gets the ID of the current creature.
+         *
+         * @return The creature ID.
+         */
+        public long getId() {
+            return ids[index];
+        }
+
+        /**
+         * Gets the species ID of the current creature.
+         *
+         * @return The species ID.
+         */
+        public int getSpeciesId() {
+            return speciesId(value);
+        }
+
+        /**
+         * Gets the species of the current creature.
+         *
+         * @return The species.
+         */
+        public Species getSpecies() {
+            return Species.byId(speciesId(value));
+        }
+
+        /**
+         * Gets the evolution level of the current creature.
+         *
+         * @return The evolution level.
+         */
+        public int getLevel() {
+            return level(value);
+        }
+
+        /**
+         * Gets the current health of the current creature.
+         *
+         * @return The health.
+         */
+        public int getHealth() {
+            return health(value);
+        }
+
+        /**
+         * Gets the flags of the current creature.
+         *
+         * @return The flags.
+         */
+        public int getFlags() {
+            return flags(value);
+        }
+
+        /**
+         * Sets the health of the current creature.
+         *
+         * @param health The new health.
+         */
+        public void setHealth(int health) {
+            CreatureStore.this.setHealth(index, health);
+            value = packed[index];
+        }
+    }
+}
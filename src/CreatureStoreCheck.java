@@ -0,0 +1,89 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The CreatureStoreCheck class checks that a {@link CreatureStore} keeps exactly the
+ * creatures put into it: packing, the conversion back to creature objects, cursor
+ * scans, health updates and removal.
+ *
+ */
+public class CreatureStoreCheck {
+
+    /**
+     * Runs the checks.
+     *
+     * @throws AssertionError if a check fails.
+     */
+    public static void run() {
+        checkPacking();
+        checkStore();
+    }
+
+    private static void checkPacking() {
+        int[][] cases = {{0, 0, 0, 0}, {(1 << 24) - 1, 255, 65535, 65535}, {17, 3, 42, CreatureStore.FLAG_ACTIVE}};
+        for (int[] fields : cases) {
+            long packed = CreatureStore.pack(fields[0], fields[1], fields[2], fields[3]);
+            int[] unpacked = {CreatureStore.speciesId(packed), CreatureStore.level(packed),
+                    CreatureStore.health(packed), CreatureStore.flags(packed)};
+            Checks.require(Arrays.equals(fields, unpacked),
+                    "pack " + Arrays.toString(fields) + " unpacked as " + Arrays.toString(unpacked));
+        }
+        for (int[] fields : new int[][]{{1 << 24, 0, 0, 0}, {0, 256, 0, 0}, {0, 0, -1, 0}, {0, 0, 0, 1 << 16}}) {
+            try {
+                CreatureStore.pack(fields[0], fields[1], fields[2], fields[3]);
+                throw new AssertionError("pack accepted " + Arrays.toString(fields));
+            } catch (IllegalArgumentException expected) {
+                // Out of range fields are rejected.
+            }
+        }
+    }
+
+    private static void checkStore() {
+        int count = 10_000;
+        Creature[] creatures = Fixtures.cyclingCreatures(count);
+        for (int i = 0; i < count; i++) {
+            creatures[i].setHealth(i % 51);
+        }
+        List<Creature> list = Arrays.asList(creatures);
+        CreatureStore store = CreatureStore.of(list);
+        Checks.requireEqual(count, store.size(), "store size");
+        Checks.requireEqual(list, store.toCreatures(), "creatures read back");
+
+        long listTotal = 0;
+        for (Creature creature : list) {
+            listTotal += creature.getEvolutionLevel() >= 2 ? creature.getHealth() : 0;
+        }
+        long storeTotal = 0;
+        int scanned = 0;
+        CreatureStore.Cursor cursor = store.cursor();
+        for (int pass = 0; pass < 2; pass++) {
+            cursor.reset();
+            while (cursor.next()) {
+                Creature creature = creatures[cursor.getIndex()];
+                Checks.requireEqual(creature.getId(), cursor.getId(), "cursor ID at " + cursor.getIndex());
+                Checks.require(cursor.getSpecies() == creature.getSpecies(), "cursor species at " + cursor.getIndex());
+                storeTotal += cursor.getLevel() >= 2 ? cursor.getHealth() : 0;
+                scanned++;
+            }
+        }
+        Checks.requireEqual(2L * count, scanned, "creatures scanned in two passes");
+        Checks.requireEqual(2 * listTotal, storeTotal, "health of evolved creatures in two passes");
+
+        store.setHealth(5, 7);
+        Creature restored = store.toCreature(5);
+        Checks.requireEqual(creatures[5], restored, "creature after a health update");
+        Checks.requireEqual(7, restored.getHealth(), "health after a health update");
+        Checks.requireEqual(creatures[5].getSpecies().getId(), CreatureStore.speciesId(store.getPacked(5)),
+                "species after a health update");
+
+        store.removeAt(0);
+        Checks.requireEqual(count - 1, store.size(), "store size after a removal");
+        Checks.requireEqual(creatures[count - 1], store.toCreature(0), "creature moved into the removed place");
+        try {
+            store.getId(count - 1);
+            throw new AssertionError("read past the end of the store");
+        } catch (IndexOutOfBoundsException expected) {
+            // The removed slot is gone.
+        }
+    }
+}
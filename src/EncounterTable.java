@@ -0,0 +1,208 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * The EncounterTable class picks which species appears in an encounter, with each
+ * species weighted by how often it should spawn. Tables are built once with Walker's
+ * alias method, so a spawn takes constant time no matter how many species the table
+ * holds.
+ *
+ */
+public final class EncounterTable {
+    private static final EncounterTable[] LEVEL_TABLES = buildLevelTables();//The default tables, by evolution level - 1.
+
+    private final Species[] species;//The species of the table.
+    private final double[] weights;//The weight of each species, as given to the builder.
+    private final double[] probability;//The chance of keeping each column's own species instead of its alias.
+    private final int[] alias;//The species each column falls back to.
+
+    private EncounterTable(List<Species> species, List<Double> weights) {
+        int n = species.size();
+        this.species = species.toArray(new Species[0]);
+        this.weights = new double[n];
+        this.probability = new double[n];
+        this.alias = new int[n];
+
+        double total = 0;
+        for (int i = 0; i < n; i++) {
+            this.weights[i] = weights.get(i);
+            total += this.weights[i];
+        }
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = this.weights[i] * n / total;
+            if (scaled[i] < 1) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            probability[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1;
+            if (scaled[more] < 1) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        // Whatever is left has a probability of 1, up to rounding error.
+        while (largeCount > 0) {
+            probability[large[--largeCount]] = 1;
+        }
+        while (smallCount > 0) {
+            probability[small[--smallCount]] = 1;
+        }
+    }
+
+    /**
+     * Creates a builder for a new encounter table.
+     *
+     * @return The builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets the default table of an evolution level, in which every species of the
+     * catalog at that level is equally likely.
+     *
+     * @param level The evolution level.
+     * @return The table, or null if the catalog has no species at that level.
+     */
+    public static EncounterTable forLevel(int level) {
+        return level >= 1 && level <= LEVEL_TABLES.length ? LEVEL_TABLES[level - 1] : null;
+    }
+
+    private static EncounterTable[] buildLevelTables() {
+        SpeciesCatalog catalog = SpeciesCatalog.getDefault();
+        EncounterTable[] tables = new EncounterTable[catalog.getMaxLevel()];
+        for (int level = 1; level <= tables.length; level++) {
+            Builder builder = builder();
+            for (int family = 0; family < catalog.getFamilyCount(); family++) {
+                Species species = catalog.of(family, level);
+                if (species != null) {
+                    builder.add(species, 1);
+                }
+            }
+            tables[level - 1] = builder.size() == 0 ? null : builder.build();
+        }
+        return tables;
+    }
+
+    /**
+     * Picks a species in constant time.
+     *
+     * @param random The random stream to draw from.
+     * @return The species that appears.
+     */
+    public Species sample(SplittableRandom random) {
+        return species[sampleIndex(random)];
+    }
+
+    /**
+     * Picks the index of a species in constant time.
+     *
+     * @param random The random stream to draw from.
+     * @return The index of the species that appears, in the order it was added.
+     */
+    public int sampleIndex(SplittableRandom random) {
+        int column = random.nextInt(species.length);
+        return random.nextDouble() < probability[column] ? column : alias[column];
+    }
+
+    /**
+     * Creates a creature of a species picked from the table.
+     *
+     * @param random The random stream to draw from.
+     * @return The new creature.
+     */
+    public Creature spawn(SplittableRandom random) {
+        return new Creature(sample(random));
+    }
+
+    /**
+     * Gets the number of species in the table.
+     *
+     * @return The number of species.
+     */
+    public int size() {
+        return species.length;
+    }
+
+    /**
+     * Gets a species of the table.
+     *
+     * @param index The index of the species, in the order it was added.
+     * @return The species.
+     */
+    public Species getSpecies(int index) {
+        return species[index];
+    }
+
+    /**
+     * Gets the weight a species was added with.
+     *
+     * @param index The index of the species, in the order it was added.
+     * @return The weight of the species.
+     */
+    public double getWeight(int index) {
+        return weights[index];
+    }
+
+    /**
+     * The Builder class collects the species and weights of an encounter table.
+     */
+    public static class Builder {
+        private final List<Species> species = new ArrayList<>();
+        private final List<Double> weights = new ArrayList<>();
+
+        /**
+         * Adds a species to the table.
+         *
+         * @param spawn  The species.
+         * @param weight The relative weight of the species; must be positive.
+         * @return This builder.
+         * @throws IllegalArgumentException if the weight is not positive.
+         */
+        public Builder add(Species spawn, double weight) {
+            if (!(weight > 0) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("Weight of " + spawn + " must be positive: " + weight);
+            }
+            species.add(spawn);
+            weights.add(weight);
+            return this;
+        }
+
+        /**
+         * Gets the number of species added so far.
+         *
+         * @return The number of species.
+         */
+        public int size() {
+            return species.size();
+        }
+
+        /**
+         * Builds the table.
+         *
+         * @return The encounter table.
+         * @throws IllegalStateException if no species were added.
+         */
+        public EncounterTable build() {
+            if (species.isEmpty()) {
+                throw new IllegalStateException("An encounter table needs at least one species");
+            }
+            return new EncounterTable(species, weights);
+        }
+    }
+}
@@ -27,20 +27,7 @@ public class Evolution {
     public Optional<Creature> evolveCreatures(Creature creature1, Creature creature2) {
         // Check if creatures can evolve
         if (canEvolve(creature1, creature2)) {
-            String evolvedName = calculateEvolvedName(creature1.getFamily(), creature1.getEvolutionLevel() + 1);
-            Creature evolvedCreature = new Creature(
-                    evolvedName,
-                    creature1.getType(),
-                    creature1.getFamily(),
-                    creature1.getEvolutionLevel() + 1,
-                    determineImagePath(creature1.getFamily(), creature1.getEvolutionLevel() + 1),
-                    calculateEvolvedMaxHealth(creature1.getEvolutionLevel() + 1)
-            );
-
-            inventory.removeCreature(creature1);
-            inventory.removeCreature(creature2);
-            inventory.addCreature(evolvedCreature);
-            return Optional.of(evolvedCreature);
+            return Optional.ofNullable(inventory.evolvePair(creature1, creature2));
         }
         return Optional.empty();
     }
@@ -58,7 +45,7 @@ public class Evolution {
                 creature1.getId() != creature2.getId() &&
                 creature1.getFamily().equals(creature2.getFamily()) &&
                 creature1.getEvolutionLevel() == creature2.getEvolutionLevel() &&
-                creature1.getEvolutionLevel() < 3;
+                EvolutionGraph.getDefault().canEvolve(creature1.getSpecies());
     }
 
     /**
@@ -66,33 +53,47 @@ public class Evolution {
      *
      * @param family         The family of the creature.
      * @param evolutionLevel The evolution level of the creature.
-     * @return The name of the evolved creature.
+     * @return The name of the evolved creature, or an empty string if the family has no species at that level.
+     * @deprecated Evolved creatures are species of the {@link SpeciesCatalog}; use
+     *             {@link EvolutionGraph#next(Species)} and {@link Species#getName()}.
      */
+    @Deprecated
     public String calculateEvolvedName(String family, int evolutionLevel) {
-
-        return family + "EvolvedLv" + evolutionLevel;
+        Species species = SpeciesCatalog.getDefault().of(family, evolutionLevel);
+        return species == null ? "" : species.getName();
     }
 
     /**
-     * Determines the file path to the image of the evolved creature based on its family and evolution level.
+     * Determines the path to the image of the evolved creature based on its family and evolution level.
      *
      * @param family         The family of the creature.
      * @param evolutionLevel The evolution level of the creature.
-     * @return The file path to the image of the evolved creature.
+     * @return The path to the image of the evolved creature, or an empty string if the family has no species at that level.
+     * @deprecated Use {@link EvolutionGraph#next(Species)} and {@link Species#getIconPath()}.
      */
+    @Deprecated
     public String determineImagePath(String family, int evolutionLevel) {
-
-        return "src/" + family.toLowerCase() + "_evolution_" + evolutionLevel + ".png";
+        Species species = SpeciesCatalog.getDefault().of(family, evolutionLevel);
+        return species == null ? "" : species.getIconPath();
     }
 
     /**
-     * Calculates the maximum health of the evolved creature based on its evolution level.
+     * Calculates the maximum health of the evolved creature based on its evolution level,
+     * from the first family of the catalog with a species at that level.
      *
      * @param evolutionLevel The evolution level of the creature.
-     * @return The maximum health of the evolved creature.
+     * @return The maximum health of the evolved creature, or 0 if no species has that level.
+     * @deprecated Maximum health belongs to each species; use {@link Species#getMaxHealth()}.
      */
+    @Deprecated
     public int calculateEvolvedMaxHealth(int evolutionLevel) {
-
-        return 100 + (evolutionLevel - 1) * 20;
+        SpeciesCatalog catalog = SpeciesCatalog.getDefault();
+        for (int family = 0; family < catalog.getFamilyCount(); family++) {
+            Species species = catalog.of(family, evolutionLevel);
+            if (species != null) {
+                return species.getMaxHealth();
+            }
+        }
+        return 0;
     }
 }
@@ -1,5 +1,7 @@
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.util.List;
 import java.util.function.Consumer;
 
@@ -14,8 +16,10 @@ public class EvolutionGUI extends JFrame {
     private GameManager gameManager;
     private JComboBox<Creature> creature1ComboBox;
     private JComboBox<Creature> creature2ComboBox;
+    private InventoryComboBoxModel creature1Model;//The creatures that can still evolve, following the inventory.
     private JButton evolveButton;
     private JLabel resultLabel;
+    private JLabel previewLabel;//Shows what evolving every creature would give.
 
     private Consumer<List<Creature>> onEvolveSelected;//A consumer to handle the result of the evolution, typically used to refresh the game state.
     
@@ -44,35 +48,85 @@ public class EvolutionGUI extends JFrame {
         setTitle("Evolve Creatures");
         setLayout(new FlowLayout());
 
-        creature1ComboBox = new JComboBox<>();
+        creature1Model = new InventoryComboBoxModel(inventory,
+                creature -> EvolutionGraph.getDefault().canEvolve(creature.getSpecies()), false);
+        creature1ComboBox = new JComboBox<>(creature1Model);
         creature2ComboBox = new JComboBox<>();
-        updateCreatureComboBoxes();
+        creature1ComboBox.addActionListener(e -> updatePartnerComboBox());
 
         evolveButton = new JButton("Evolve");
         evolveButton.addActionListener(e -> performEvolution());
 
+        JButton evolveAllButton = new JButton("Evolve All");
+        evolveAllButton.addActionListener(e -> performEvolveAll());
+
         resultLabel = new JLabel();
+        previewLabel = new JLabel();
+        updatePreview();
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowActivated(WindowEvent e) {
+                updatePreview();
+            }
+        });
 
         add(creature1ComboBox);
         add(creature2ComboBox);
         add(evolveButton);
+        add(evolveAllButton);
         add(resultLabel);
+        add(previewLabel);
 
         pack();
         setLocationRelativeTo(null);
     }
 
     /**
-     * Updates the creature combo boxes with eligible creatures that can participate in evolution.
+     * Updates the partner combo box once the first combo box has applied the changes
+     * of an evolution, which it does later on the event dispatch thread.
      */
     public void updateCreatureComboBoxes() {
-        creature1ComboBox.removeAllItems();
-        creature2ComboBox.removeAllItems();
-        List<Creature> eligibleCreatures = inventory.getCreaturesEligibleForEvolution();
-        for (Creature creature : eligibleCreatures) {
-            creature1ComboBox.addItem(creature);
-            creature2ComboBox.addItem(creature);
+        SwingUtilities.invokeLater(this::updatePartnerComboBox);
+        updatePreview();
+    }
+
+    /**
+     * Shows what the evolve all button would do, planned by {@link EvolutionPlanner}
+     * without changing the inventory. The merges are listed in the tooltip.
+     */
+    public void updatePreview() {
+        EvolutionPlanner.Plan plan = EvolutionPlanner.getDefault().plan(inventory);
+        if (plan.getEvolutions() == 0) {
+            previewLabel.setText("No creatures can evolve.");
+            previewLabel.setToolTipText(null);
+            return;
+        }
+        previewLabel.setText("Evolve All: " + plan.getEvolutions() + " evolutions, "
+                + plan.getCountAtLevel(Inventory.MAX_EVOLUTION_LEVEL) + " creatures at level " + Inventory.MAX_EVOLUTION_LEVEL);
+        StringBuilder steps = new StringBuilder("<html>");
+        for (EvolutionPlanner.Step step : plan.getSteps()) {
+            steps.append(step).append("<br>");
         }
+        previewLabel.setToolTipText(steps.append("</html>").toString());
+    }
+
+    /**
+     * Updates the second combo box with the creatures that can evolve together with
+     * the creature selected in the first one, replacing its model in one step.
+     */
+    public void updatePartnerComboBox() {
+        Creature creature1 = (Creature) creature1ComboBox.getSelectedItem();
+        List<Creature> partners = creature1 == null ? List.of() : inventory.getEvolutionPartners(creature1);
+        creature2ComboBox.setModel(new DefaultComboBoxModel<>(partners.toArray(new Creature[0])));
+    }
+
+    /**
+     * Closes the window and stops following the inventory.
+     */
+    @Override
+    public void dispose() {
+        creature1Model.detach();
+        super.dispose();
     }
 
     /**
@@ -96,5 +150,14 @@ public class EvolutionGUI extends JFrame {
         }
     }
 
+    /**
+     * Evolves every creature that can evolve when the evolve all button is clicked.
+     */
+    public void performEvolveAll() {
+        int evolutions = inventory.evolveAll();
+        resultLabel.setText(evolutions == 0 ? "No creatures can evolve." : "Performed " + evolutions + " evolutions!");
+        updateCreatureComboBoxes();
+    }
+
 }
 
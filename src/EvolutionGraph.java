@@ -0,0 +1,141 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The EvolutionGraph class tells which species each species evolves into. It is built
+ * once from a {@link SpeciesCatalog} and never changes, and every lookup is an array
+ * access by species ID, however long a family's chain is or however many branches it has.
+ *
+ * <p>A species may evolve into several species when its family branches. The first of
+ * them in catalog order is its main evolution, which {@link #next(Species)} returns and
+ * which evolving two creatures produces.
+ *
+ */
+public final class EvolutionGraph {
+    private static final EvolutionGraph DEFAULT = new EvolutionGraph(SpeciesCatalog.getDefault());//The graph of the game's species.
+
+    private final SpeciesCatalog catalog;//The catalog the graph was built from.
+    private final int[] next;//The ID of each species' main evolution, or -1.
+    private final int[] previous;//The ID of the species each species evolves from, or -1.
+    private final List<List<Species>> branches;//Every species each species evolves into, by species ID.
+
+    private EvolutionGraph(SpeciesCatalog catalog) {
+        this.catalog = catalog;
+        int size = catalog.size();
+        this.next = new int[size];
+        this.previous = new int[size];
+        List<List<Species>> children = new ArrayList<>(size);
+        for (int id = 0; id < size; id++) {
+            next[id] = -1;
+            children.add(new ArrayList<>());
+        }
+        for (int id = 0; id < size; id++) {
+            int parent = catalog.getParentId(id);
+            previous[id] = parent;
+            if (parent != -1) {
+                if (next[parent] == -1) {
+                    next[parent] = id;
+                }
+                children.get(parent).add(catalog.get(id));
+            }
+        }
+        List<List<Species>> frozen = new ArrayList<>(size);
+        for (List<Species> list : children) {
+            frozen.add(list.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(list));
+        }
+        this.branches = Collections.unmodifiableList(frozen);
+    }
+
+    /**
+     * Gets the evolution graph of the game's species.
+     *
+     * @return The default graph.
+     */
+    public static EvolutionGraph getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Builds the evolution graph of a catalog.
+     *
+     * @param catalog The catalog.
+     * @return The graph.
+     */
+    public static EvolutionGraph of(SpeciesCatalog catalog) {
+        return catalog == SpeciesCatalog.getDefault() ? DEFAULT : new EvolutionGraph(catalog);
+    }
+
+    /**
+     * Gets the catalog ID of a species, looking species that are not in the catalog up by name.
+     *
+     * @return The ID, or -1 if the catalog has no species of that name.
+     */
+    private int idOf(Species species) {
+        if (species == null) {
+            return -1;
+        }
+        int id = species.getId();
+        if (id == Species.UNREGISTERED || id >= next.length || catalog.get(id) != species) {
+            Species registered = catalog.byName(species.getName());
+            return registered == null ? -1 : registered.getId();
+        }
+        return id;
+    }
+
+    /**
+     * Gets the species a species evolves into. Its name, icon path and maximum health
+     * are those of the evolved creature.
+     *
+     * @param species The species.
+     * @return The main evolution, or null if the species does not evolve.
+     */
+    public Species next(Species species) {
+        int id = idOf(species);
+        return id == -1 || next[id] == -1 ? null : catalog.get(next[id]);
+    }
+
+    /**
+     * Gets the species the species of a family at an evolution level evolves into.
+     *
+     * @param familyIndex The index of the family in the catalog.
+     * @param level       The evolution level.
+     * @return The main evolution, or null if there is no such species or it does not evolve.
+     */
+    public Species next(int familyIndex, int level) {
+        return next(catalog.of(familyIndex, level));
+    }
+
+    /**
+     * Gets every species a species can evolve into.
+     *
+     * @param species The species.
+     * @return The evolutions in catalog order, the main one first; empty if the species does not evolve.
+     */
+    public List<Species> branches(Species species) {
+        int id = idOf(species);
+        return id == -1 ? Collections.emptyList() : branches.get(id);
+    }
+
+    /**
+     * Gets the species a species evolves from.
+     *
+     * @param species The species.
+     * @return The species it evolves from, or null if it is the first of its chain.
+     */
+    public Species previous(Species species) {
+        int id = idOf(species);
+        return id == -1 || previous[id] == -1 ? null : catalog.get(previous[id]);
+    }
+
+    /**
+     * Checks if a species evolves into another species.
+     *
+     * @param species The species.
+     * @return true if the species can evolve, false otherwise.
+     */
+    public boolean canEvolve(Species species) {
+        int id = idOf(species);
+        return id != -1 && next[id] != -1;
+    }
+}
@@ -0,0 +1,251 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The EvolutionPlanner class works out how to evolve a collection of creatures so it
+ * ends with as many creatures at the highest levels as possible, without changing
+ * anything. It only needs the number of creatures of each species: every species is
+ * visited once, lowest level first, and as many pairs as possible are merged at each
+ * step, with the creatures evolved from the level below merged before the ones
+ * already owned. Any other choice of pairs leaves fewer creatures at the top.
+ *
+ * <p>A plan of an {@link Inventory} takes time linear in the number of species,
+ * however many creatures the inventory holds, since the inventory counts its
+ * creatures by species as it keeps them. {@link Inventory#evolveAll()} carries out
+ * the same plan.
+ *
+ */
+public final class EvolutionPlanner {
+    private static final EvolutionPlanner DEFAULT = new EvolutionPlanner(SpeciesCatalog.getDefault());//The planner of the game's species.
+
+    private final SpeciesCatalog catalog;//The catalog the planner was built for.
+    private final EvolutionGraph graph;//What each species evolves into.
+    private final int[] order;//The species IDs, lowest evolution level first, so each comes before the species it evolves into.
+
+    private EvolutionPlanner(SpeciesCatalog catalog) {
+        this.catalog = catalog;
+        this.graph = EvolutionGraph.of(catalog);
+        int[] start = new int[catalog.getMaxLevel() + 2];
+        for (int id = 0; id < catalog.size(); id++) {
+            start[catalog.get(id).getEvolutionLevel() + 1]++;
+        }
+        for (int level = 1; level < start.length; level++) {
+            start[level] += start[level - 1];
+        }
+        this.order = new int[catalog.size()];
+        for (int id = 0; id < catalog.size(); id++) {
+            order[start[catalog.get(id).getEvolutionLevel()]++] = id;
+        }
+    }
+
+    /**
+     * Gets the planner of the game's species.
+     *
+     * @return The default planner.
+     */
+    public static EvolutionPlanner getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Builds the planner of a catalog.
+     *
+     * @param catalog The catalog.
+     * @return The planner.
+     */
+    public static EvolutionPlanner of(SpeciesCatalog catalog) {
+        return catalog == SpeciesCatalog.getDefault() ? DEFAULT : new EvolutionPlanner(catalog);
+    }
+
+    /**
+     * Plans the evolution of the creatures of an inventory. Creatures of species that
+     * are not in the catalog are left out.
+     *
+     * @param inventory The inventory, whose creatures belong to the game's species.
+     * @return The plan.
+     */
+    public Plan plan(Inventory inventory) {
+        return plan(inventory.countBySpecies());
+    }
+
+    /**
+     * Plans the evolution of a collection of creatures.
+     *
+     * @param counts The number of creatures of each species, by species ID.
+     * @return The plan.
+     * @throws IllegalArgumentException if there is not one count per species or a count is negative.
+     */
+    public Plan plan(int[] counts) {
+        if (counts.length != catalog.size()) {
+            throw new IllegalArgumentException("Expected " + catalog.size() + " species counts, got " + counts.length);
+        }
+        int[] carried = new int[counts.length];
+        Plan plan = new Plan(catalog, counts.length);
+        for (int id : order) {
+            if (counts[id] < 0) {
+                throw new IllegalArgumentException("Negative count for species " + catalog.get(id).getName());
+            }
+            Species next = graph.next(catalog.get(id));
+            int pairs = next == null ? 0 : (counts[id] + carried[id]) / 2;
+            int fromCarried = Math.min(carried[id], 2 * pairs);
+            plan.consumed[id] = 2 * pairs - fromCarried;
+            plan.created[id] = carried[id] - fromCarried;
+            plan.counts[id] = counts[id] - plan.consumed[id] + plan.created[id];
+            if (pairs > 0) {
+                carried[next.getId()] += pairs;
+                plan.steps.add(new Step(catalog.get(id), next, pairs));
+                plan.evolutions += pairs;
+            }
+            if (plan.created[id] > 0) {
+                plan.createdSpecies.add(catalog.get(id));
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * The Plan class holds the result of planning: which pairs to merge, and how many
+     * creatures of each species there are afterwards.
+     */
+    public static class Plan {
+        private final SpeciesCatalog catalog;//The catalog the plan was made for.
+        private final int[] consumed;//The number of owned creatures of each species that are merged.
+        private final int[] created;//The number of creatures of each species that are made and kept.
+        private final int[] counts;//The number of creatures of each species after the plan.
+        private final List<Step> steps = new ArrayList<>();//The merges, lowest level first.
+        private final List<Species> createdSpecies = new ArrayList<>();//The species of the kept creatures, lowest level first.
+        private int evolutions;//The number of merges.
+
+        private Plan(SpeciesCatalog catalog, int size) {
+            this.catalog = catalog;
+            this.consumed = new int[size];
+            this.created = new int[size];
+            this.counts = new int[size];
+        }
+
+        /**
+         * Gets the number of evolutions the plan performs.
+         *
+         * @return The number of merged pairs.
+         */
+        public int getEvolutions() {
+            return evolutions;
+        }
+
+        /**
+         * Gets the merges to perform, lowest level first. A step's pairs may include
+         * creatures evolved by an earlier step.
+         *
+         * @return The steps.
+         */
+        public List<Step> getSteps() {
+            return Collections.unmodifiableList(steps);
+        }
+
+        /**
+         * Gets the number of creatures of a species after the plan.
+         *
+         * @param species The species.
+         * @return The number of creatures, or 0 if the species is not in the catalog.
+         */
+        public int getCount(Species species) {
+            int id = species.getId();
+            return id >= 0 && id < counts.length && catalog.get(id) == species ? counts[id] : 0;
+        }
+
+        /**
+         * Gets the number of creatures at an evolution level after the plan.
+         *
+         * @param level The evolution level.
+         * @return The number of creatures.
+         */
+        public int getCountAtLevel(int level) {
+            int count = 0;
+            for (int id = 0; id < counts.length; id++) {
+                if (catalog.get(id).getEvolutionLevel() == level) {
+                    count += counts[id];
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Gets the number of owned creatures of a species the plan merges.
+         *
+         * @param speciesId The species ID.
+         * @return The number of creatures.
+         */
+        int getConsumed(int speciesId) {
+            return consumed[speciesId];
+        }
+
+        /**
+         * Gets the number of evolved creatures of a species the plan keeps.
+         *
+         * @param species The species.
+         * @return The number of creatures.
+         */
+        int getCreated(Species species) {
+            return created[species.getId()];
+        }
+
+        /**
+         * Gets the species of the evolved creatures the plan keeps.
+         *
+         * @return The species, lowest level first.
+         */
+        List<Species> getCreatedSpecies() {
+            return createdSpecies;
+        }
+    }
+
+    /**
+     * The Step class represents merging pairs of creatures of one species into the
+     * species it evolves into.
+     */
+    public static class Step {
+        private final Species species;
+        private final Species evolvedSpecies;
+        private final int pairs;
+
+        private Step(Species species, Species evolvedSpecies, int pairs) {
+            this.species = species;
+            this.evolvedSpecies = evolvedSpecies;
+            this.pairs = pairs;
+        }
+
+        /**
+         * Gets the species of the merged creatures.
+         *
+         * @return The species.
+         */
+        public Species getSpecies() {
+            return species;
+        }
+
+        /**
+         * Gets the species the merged creatures evolve into.
+         *
+         * @return The evolved species.
+         */
+        public Species getEvolvedSpecies() {
+            return evolvedSpecies;
+        }
+
+        /**
+         * Gets the number of pairs merged.
+         *
+         * @return The number of pairs.
+         */
+        public int getPairs() {
+            return pairs;
+        }
+
+        @Override
+        public String toString() {
+            return "Merge " + pairs + (pairs == 1 ? " pair of " : " pairs of ") + species.getName()
+                    + " into " + evolvedSpecies.getName();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+import java.util.List;
+
+/**
+ * The EvolutionPlannerCheck class checks that {@link EvolutionPlanner} leaves the
+ * inventory it plans for unchanged, that {@link Inventory#evolveAll()} then does
+ * exactly what the plan says, and that bad species counts are rejected.
+ *
+ */
+public class EvolutionPlannerCheck {
+
+    /**
+     * Runs the checks.
+     *
+     * @throws AssertionError if a check fails.
+     */
+    public static void run() {
+        checkOneFamily();
+        checkCounts();
+        for (int count : new int[]{0, 1, 1_000, 20_000}) {
+            checkAgainstEvolveAll(count);
+        }
+    }
+
+    private static void checkOneFamily() {
+        int[] counts = new int[Species.count()];
+        counts[Species.of(0, 1).getId()] = 5;
+        EvolutionPlanner.Plan plan = EvolutionPlanner.getDefault().plan(counts);
+        if (Species.of(0, 3) != null) {
+            Checks.requireEqual(3, plan.getEvolutions(), "evolutions of five first-level creatures");
+            Checks.requireEqual(1, plan.getCount(Species.of(0, 1)), "first-level creatures left");
+            Checks.requireEqual(0, plan.getCount(Species.of(0, 2)), "second-level creatures left");
+            Checks.requireEqual(1, plan.getCount(Species.of(0, 3)), "third-level creatures made");
+        } else {
+            Checks.requireEqual(2, plan.getEvolutions(), "evolutions of five first-level creatures");
+            Checks.requireEqual(2, plan.getCount(Species.of(0, 2)), "second-level creatures made");
+        }
+    }
+
+    private static void checkCounts() {
+        EvolutionPlanner planner = EvolutionPlanner.getDefault();
+        try {
+            planner.plan(new int[Species.count() + 1]);
+            throw new AssertionError("plan accepted a count for a species that does not exist");
+        } catch (IllegalArgumentException expected) {
+            // One count per species.
+        }
+        int[] counts = new int[Species.count()];
+        counts[0] = -1;
+        try {
+            planner.plan(counts);
+            throw new AssertionError("plan accepted a negative count");
+        } catch (IllegalArgumentException expected) {
+            // Counts are never negative.
+        }
+    }
+
+    private static void checkAgainstEvolveAll(int count) {
+        String at = count + " creatures: ";
+        Inventory inventory = Fixtures.fill(new Inventory(), Fixtures.randomCreatures(count, count));
+        int version = inventory.getVersion();
+        List<Creature> before = inventory.getCreatures();
+        EvolutionPlanner.Plan plan = EvolutionPlanner.getDefault().plan(inventory);
+        Checks.requireEqual(version, inventory.getVersion(), at + "version after planning");
+        Checks.require(inventory.getCreatures() == before, at + "planning changed the creatures");
+
+        int total = 0;
+        for (int level = 1; level <= Inventory.MAX_EVOLUTION_LEVEL; level++) {
+            total += plan.getCountAtLevel(level);
+        }
+        Checks.requireEqual(count - plan.getEvolutions(), total, at + "creatures after the plan");
+
+        Checks.requireEqual(plan.getEvolutions(), inventory.evolveAll(), at + "evolutions of evolveAll");
+        int[] counts = inventory.countBySpecies();
+        for (int id = 0; id < Species.count(); id++) {
+            Checks.requireEqual(plan.getCount(Species.byId(id)), counts[id],
+                    at + "creatures of " + Species.byId(id).getName() + " after evolveAll");
+        }
+    }
+}
@@ -0,0 +1,127 @@
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The EvolutionTransactionCheck class checks that evolutions are all-or-nothing: a
+ * creature is never evolved twice, a pair that was already used fails without
+ * changing anything, and several threads evolving overlapping pairs of one inventory
+ * leave exactly the creatures their successful evolutions made. Creatures are
+ * weighed as 2^(level - 1) first-level creatures, a total no evolution changes.
+ *
+ */
+public class EvolutionTransactionCheck {
+
+    /**
+     * Runs the checks.
+     *
+     * @throws AssertionError if a check fails.
+     */
+    public static void run() {
+        checkOverlappingPairs();
+        for (int threadCount : new int[]{1, 4}) {
+            checkConcurrently(threadCount);
+        }
+    }
+
+    private static void checkOverlappingPairs() {
+        Creature[] creatures = Fixtures.firstLevelCreatures(3, 1);
+        Inventory inventory = Fixtures.fill(new Inventory(), creatures);
+        long weight = weightOf(inventory.getCreatures());
+        Checks.require(inventory.evolveCreature(creatures[0], creatures[1]), "first evolution failed");
+        int version = inventory.getVersion();
+        Checks.require(!inventory.evolveCreature(creatures[0], creatures[2]), "a consumed creature evolved again");
+        Checks.require(!inventory.evolveCreature(creatures[2], creatures[2]), "a creature evolved with itself");
+        Checks.requireEqual(version, inventory.getVersion(), "version after failed evolutions");
+        Checks.requireEqual(2, inventory.size(), "creatures after failed evolutions");
+        Checks.require(inventory.contains(creatures[2]), "failed evolution removed its creature");
+        Checks.requireEqual(weight, weightOf(inventory.getCreatures()), "weight after evolving");
+    }
+
+    private static void checkConcurrently(int threadCount) {
+        int count = 20_000;
+        int attempts = 20_000;
+        Inventory inventory = Fixtures.fill(new Inventory(true), Fixtures.firstLevelCreatures(count, 3));
+        long weight = weightOf(inventory.getCreatures());
+        Set<Long> consumedIds = ConcurrentHashMap.newKeySet();
+        AtomicLong evolvedEvents = new AtomicLong();
+        AtomicBoolean evolvedTwice = new AtomicBoolean();
+        AtomicBoolean halfway = new AtomicBoolean();
+        inventory.addListener(new InventoryListener() {
+            @Override
+            public void creaturesEvolved(List<Creature> consumed, List<Creature> evolved) {
+                for (Creature creature : consumed) {
+                    if (!consumedIds.add(creature.getId())) {
+                        evolvedTwice.set(true);
+                    }
+                }
+                evolvedEvents.addAndGet(evolved.size());
+            }
+        });
+        AtomicLong evolutions = new AtomicLong();
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread reader = new Thread(() -> {
+            while (running.get()) {
+                if (weightOf(inventory.getCreatures()) != weight) {
+                    halfway.set(true);
+                }
+                Thread.yield();
+            }
+        });
+        Thread[] threads = new Thread[threadCount];
+        for (int t = 0; t < threadCount; t++) {
+            int seed = t;
+            threads[t] = new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                List<Creature> creatures = inventory.getCreatures();
+                long done = 0;
+                for (int i = 0; i < attempts / threadCount; i++) {
+                    if ((i & 1023) == 0) {
+                        creatures = inventory.getCreatures();
+                    }
+                    Creature first = creatures.get(random.nextInt(creatures.size()));
+                    Creature second = creatures.get(random.nextInt(creatures.size()));
+                    done += inventory.evolveCreature(first, second) ? 1 : 0;
+                }
+                evolutions.addAndGet(done);
+            });
+        }
+        reader.start();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        try {
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            running.set(false);
+            reader.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError("interrupted", ex);
+        }
+
+        String at = threadCount + " threads: ";
+        List<Creature> remaining = inventory.getCreatures();
+        Checks.require(evolutions.get() > 0, at + "no evolution succeeded");
+        Checks.require(!evolvedTwice.get(), at + "a creature was evolved twice");
+        Checks.require(!halfway.get(), at + "a reader saw an evolution halfway");
+        Checks.requireEqual(weight, weightOf(remaining), at + "weight of the creatures left");
+        Checks.requireEqual(count - evolutions.get(), remaining.size(), at + "creatures left");
+        Checks.requireEqual(evolutions.get(), evolvedEvents.get(), at + "evolved creatures reported");
+        Checks.requireEqual(2 * evolutions.get(), consumedIds.size(), at + "consumed creatures reported");
+        Checks.require(remaining.stream().noneMatch(creature -> consumedIds.contains(creature.getId())),
+                at + "a consumed creature is still in the inventory");
+    }
+
+    private static long weightOf(List<Creature> creatures) {
+        long weight = 0;
+        for (Creature creature : creatures) {
+            weight += 1L << (creature.getEvolutionLevel() - 1);
+        }
+        return weight;
+    }
+}
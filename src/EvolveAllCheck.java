@@ -0,0 +1,54 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The EvolveAllCheck class checks that {@link Inventory#evolveAll()} ends with the
+ * same creatures as evolving the same inventory one pair at a time with
+ * {@link Inventory#evolveCreature}, and leaves nothing that can still evolve.
+ *
+ */
+public class EvolveAllCheck {
+
+    /**
+     * Runs the checks.
+     *
+     * @throws AssertionError if a check fails.
+     */
+    public static void run() {
+        for (int count : new int[]{0, 1, 2, 1_000, 20_000}) {
+            check(count);
+        }
+    }
+
+    private static void check(int count) {
+        Creature[] creatures = Fixtures.randomCreatures(count, count);
+        Creature[] copies = new Creature[count];
+        for (int i = 0; i < count; i++) {
+            copies[i] = new Creature(creatures[i].getSpecies());
+        }
+        Inventory bulk = Fixtures.fill(new Inventory(), creatures);
+        Inventory pairwise = Fixtures.fill(new Inventory(), copies);
+
+        int bulkEvolutions = bulk.evolveAll();
+        int pairEvolutions = 0;
+        List<Inventory.EvolutionPair> pairs;
+        while (!(pairs = pairwise.getEvolvablePairs()).isEmpty()) {
+            for (Inventory.EvolutionPair pair : pairs) {
+                Checks.require(pairwise.evolveCreature(pair.getFirst(), pair.getSecond()),
+                        count + " creatures: evolvable pair did not evolve");
+                pairEvolutions++;
+            }
+        }
+        String at = count + " creatures: ";
+        Checks.requireEqual(pairEvolutions, bulkEvolutions, at + "evolutions");
+        Checks.requireEqual(pairwise.size(), bulk.size(), at + "creatures left");
+        Checks.require(Arrays.equals(pairwise.countBySpecies(), bulk.countBySpecies()),
+                at + "creatures of each species differ: " + Arrays.toString(bulk.countBySpecies())
+                        + " with evolveAll, " + Arrays.toString(pairwise.countBySpecies()) + " pair by pair");
+        Checks.require(bulk.getEvolvablePairs().isEmpty(), at + "pairs left after evolveAll");
+        Checks.requireEqual(0, bulk.evolveAll(), at + "evolutions of an evolved inventory");
+        if (count > 0) {
+            Checks.require(bulk.contains(bulk.getActiveCreature()), at + "active creature is not in the inventory");
+        }
+    }
+}
@@ -0,0 +1,71 @@
+import java.util.SplittableRandom;
+
+/**
+ * The Fixtures class builds the creatures and inventories that {@link Benchmarks}
+ * and {@link Checks} run on. Every fixture depends only on its arguments, so a run
+ * can be repeated exactly.
+ *
+ */
+public final class Fixtures {
+    private Fixtures() {
+    }
+
+    /**
+     * Creates creatures whose species cycle through the catalog in ID order.
+     *
+     * @param count The number of creatures.
+     * @return The creatures, at full health.
+     */
+    public static Creature[] cyclingCreatures(int count) {
+        Creature[] creatures = new Creature[count];
+        for (int i = 0; i < count; i++) {
+            creatures[i] = new Creature(Species.byId(i % Species.count()));
+        }
+        return creatures;
+    }
+
+    /**
+     * Creates creatures of species picked at random.
+     *
+     * @param count The number of creatures.
+     * @param seed  The seed of the picks.
+     * @return The creatures, at full health.
+     */
+    public static Creature[] randomCreatures(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Creature[] creatures = new Creature[count];
+        for (int i = 0; i < count; i++) {
+            creatures[i] = new Creature(Species.byId(random.nextInt(Species.count())));
+        }
+        return creatures;
+    }
+
+    /**
+     * Creates first-level creatures of the first few families, taking turns.
+     *
+     * @param count    The number of creatures.
+     * @param families The number of families, starting with the first of the catalog.
+     * @return The creatures, at full health.
+     */
+    public static Creature[] firstLevelCreatures(int count, int families) {
+        Creature[] creatures = new Creature[count];
+        for (int i = 0; i < count; i++) {
+            creatures[i] = new Creature(Species.of(i % families, 1));
+        }
+        return creatures;
+    }
+
+    /**
+     * Adds creatures to an inventory.
+     *
+     * @param inventory The inventory.
+     * @param creatures The creatures to add, in order.
+     * @return The inventory.
+     */
+    public static Inventory fill(Inventory inventory, Creature[] creatures) {
+        for (Creature creature : creatures) {
+            inventory.addCreature(creature);
+        }
+        return inventory;
+    }
+}
@@ -4,7 +4,10 @@ import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.net.URL;
-import java.util.Map;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 
 
 
@@ -15,7 +18,10 @@ import java.util.Map;
  *
  */
 public class Game {
+    private static final Path JOURNAL_PATH = Paths.get(System.getProperty("user.home"), ".pokemouse-journal");//The directory of the inventory journal.
+
     private final Inventory inventory;
+    private InventoryJournal journal;//Records the inventory so it survives a crash, or null if it cannot be opened.
     private GameManager gameManager;
     private JFrame frame;
 
@@ -42,72 +48,107 @@ public class Game {
      * Opens a window for the player to choose their starting creature from a list of options.
      */
     public void chooseStartingCreature() {
-        SwingUtilities.invokeLater(() -> {
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() {
+                openJournal();
+                return null;
+            }
 
-            Map<String, String> creatureFamilies = Map.of(
-                    "Strawander", "A FAMILY", "Chocowool", "B FAMILY", "Parfwit", "C FAMILY",
-                    "Brownisaur", "D FAMILY", "Frubat", "E FAMILY", "Malts", "F FAMILY",
-                    "Squirpie", "G FAMILY", "Chocolite", "H FAMILY", "Oshacone", "I FAMILY"
-            );
+            @Override
+            protected void done() {
+                showStarters();
+            }
+        }.execute();
+    }
 
-            String[] creatureNames = {
-                    "Strawander", "Chocowool", "Parfwit", "Brownisaur", "Frubat",
-                    "Malts", "Squirpie", "Chocolite", "Oshacone"
-            };
+    /**
+     * Shows the player's creatures if the journal restored any, or the window to choose
+     * a starting creature from. Runs on the event dispatch thread once the journal is open.
+     */
+    private void showStarters() {
+        if (inventory.size() > 0) {
+            gameManager = new GameManager(inventory);
+            gameManager.display();
+            return;
+        }
 
-            CreatureType[] types = {
-                    CreatureType.FIRE, CreatureType.FIRE, CreatureType.FIRE,
-                    CreatureType.NATURE, CreatureType.NATURE, CreatureType.NATURE,
-                    CreatureType.WATER, CreatureType.WATER, CreatureType.WATER
-            };
+        SpeciesCatalog catalog = SpeciesCatalog.getDefault();
+        List<Species> starters = new ArrayList<>();
+        for (int family = 0; family < catalog.getFamilyCount(); family++) {
+            Species starter = catalog.of(family, 1);
+            if (starter != null) {
+                starters.add(starter);
+            }
+        }
 
 
-            int rows = 3;
-            int cols = 3;
-            int imageWidth = 100;
-            int imageHeight = 100;
+        int cols = 3;
+        int rows = (starters.size() + cols - 1) / cols;
+        int imageWidth = 100;
+        int imageHeight = 100;
 
 
-            frame = new JFrame("Choose Your Starter");
-            frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-            frame.setLayout(new GridLayout(rows, cols));
+        frame = new JFrame("Choose Your Starter");
+        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        frame.setLayout(new GridLayout(rows, cols));
 
 
-            for (int i = 0; i < creatureNames.length; i++) {
-                String creatureName = creatureNames[i];
-                CreatureType creatureType = types[i];
-                String iconPath = creatureName + ".png";
-                String familyName = creatureFamilies.get(creatureName);
+        for (Species starter : starters) {
+            String creatureName = starter.getName();
 
-                JButton button = new JButton(creatureName);
-                button.setVerticalTextPosition(SwingConstants.BOTTOM);
-                button.setHorizontalTextPosition(SwingConstants.CENTER);
+            JButton button = new JButton(creatureName);
+            button.setVerticalTextPosition(SwingConstants.BOTTOM);
+            button.setHorizontalTextPosition(SwingConstants.CENTER);
 
 
-                ImageIcon icon = createScaledIcon(creatureName, imageWidth, imageHeight);
+            ImageIcon icon = createScaledIcon(creatureName, imageWidth, imageHeight);
 
-                if (icon != null) {
-                    button.setIcon(icon);
-                }
+            if (icon != null) {
+                button.setIcon(icon);
+            }
 
 
-                button.addActionListener(e -> {
-                    int maxHealth = 100;
-                    Creature chosenCreature = new Creature(creatureName, creatureType, familyName, 1, iconPath, maxHealth);
-                    inventory.addCreature(chosenCreature);
-                    frame.dispose();
-                    gameManager = new GameManager(inventory);
-                    gameManager.display();
-                });
+            button.addActionListener(e -> {
+                Creature chosenCreature = new Creature(starter);
+                inventory.addCreature(chosenCreature);
+                frame.dispose();
+                gameManager = new GameManager(inventory);
+                gameManager.display();
+            });
 
 
-                frame.add(button);
-            }
+            frame.add(button);
+        }
+
+        frame.pack();
+        frame.setLocationRelativeTo(null);
+        frame.setVisible(true);
+    }
 
-            frame.pack();
-            frame.setLocationRelativeTo(null);
-            frame.setVisible(true);
-        });
+    /**
+     * Opens the inventory journal, restoring the creatures of the last game. Runs off the
+     * event dispatch thread, since replaying the journal reads every record. The journal
+     * is closed when the program exits, which syncs its last records to disk.
+     */
+    private synchronized void openJournal() {
+        if (journal != null) {
+            return;
+        }
+        try {
+            journal = InventoryJournal.open(JOURNAL_PATH, inventory);
+        } catch (IOException ex) {
+            System.err.println("Cannot open the inventory journal: " + ex.getMessage());
+            return;
+        }
+        InventoryJournal opened = journal;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                opened.close();
+            } catch (IOException ex) {
+                ex.printStackTrace();
+            }
+        }));
     }
 
     /**
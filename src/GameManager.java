@@ -1,5 +1,9 @@
 import javax.swing.*;
 import java.awt.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 /**
  * The  GameManager class manages the game's main menu and navigation between different game features.
@@ -8,6 +12,7 @@ import java.awt.*;
  */
 
 public class GameManager {
+    private static final Path SAVE_PATH = Paths.get(System.getProperty("user.home"), "pokemouse.sav");//The file the game is saved to.
     private final Inventory inventory;
     private JFrame mainFrame;
     private Evolution evolution;
@@ -20,6 +25,7 @@ public class GameManager {
     public GameManager(Inventory inventory) {
         this.inventory = inventory;
         this.evolution = new Evolution(inventory); 
+        BattleAdvisor.getShared(); // Start computing battle recommendations in the background
         initializeMainMenu();
     }
 
@@ -51,12 +57,20 @@ public class GameManager {
         JButton evolutionButton = new JButton("Evolve Creatures");
         evolutionButton.addActionListener(e -> openEvolution());
 
+        JButton saveButton = new JButton("Save Game");
+        saveButton.addActionListener(e -> saveGame());
+
+        JButton loadButton = new JButton("Load Game");
+        loadButton.addActionListener(e -> loadGame());
+
         JButton exitButton = new JButton("Exit Game");
         exitButton.addActionListener(e -> exitGame());
 
         mainFrame.add(viewInventoryButton);
         mainFrame.add(exploreAreaButton);
         mainFrame.add(evolutionButton);
+        mainFrame.add(saveButton);
+        mainFrame.add(loadButton);
         mainFrame.add(exitButton);
 
         mainFrame.pack();
@@ -96,6 +110,34 @@ public class GameManager {
     }
 
 
+    /**
+     * Saves the inventory to the save file.
+     */
+    public void saveGame() {
+        try {
+            SaveGame.write(SAVE_PATH, inventory);
+            JOptionPane.showMessageDialog(mainFrame, "Game saved with " + inventory.size() + " creatures.");
+        } catch (IOException | IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(mainFrame, "Could not save the game: " + ex.getMessage(), "Save Game", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    /**
+     * Replaces the inventory with the creatures of the save file.
+     */
+    public void loadGame() {
+        if (!Files.exists(SAVE_PATH)) {
+            JOptionPane.showMessageDialog(mainFrame, "There is no saved game yet.");
+            return;
+        }
+        try {
+            SaveGame.open(SAVE_PATH).loadInto(inventory);
+            JOptionPane.showMessageDialog(mainFrame, "Game loaded with " + inventory.size() + " creatures.");
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(mainFrame, "Could not load the game: " + ex.getMessage(), "Load Game", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
     /**
      * Exits the game after displaying a confirmation dialog.
      */
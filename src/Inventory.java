@@ -1,34 +1,256 @@
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
  * The  Inventory class manages the collection of creatures available to the player,
  * including the active creature and provides methods for creature management such as evolution.
  *
+ * <p>An inventory made with {@code new Inventory(true)} can be shared between threads.
+ * Changes take a {@link StampedLock} write lock; {@link #getCreatures()},
+ * {@link #getActiveCreature()}, {@link #getVersion()}, {@link #size()} and
+ * {@link #contains(Creature)} read without locking, and other queries take the read
+ * lock. The default inventory has no lock and must stay on one thread.
+ *
+ * <p>Evolving two creatures is a transaction: both creatures are claimed without
+ * locking, so overlapping evolutions give up at once instead of queueing for the
+ * write lock, and the result is published under the write lock in one step.
+ *
+ * <p>Besides the family index used for evolution, the inventory keeps its creatures
+ * sorted by ID for each species, so {@link #query(InventoryQuery, long, int)} reads
+ * pages of matching creatures, oldest or newest first, without copying or scanning
+ * the whole inventory.
+ *
  */
 public class Inventory {
-    private List<Creature> creatures;
-    private Creature activeCreature;
+    public static final int MAX_EVOLUTION_LEVEL = SpeciesCatalog.getDefault().getMaxLevel();//The highest evolution level of any species.
+    private static final EvolutionGraph EVOLUTIONS = EvolutionGraph.getDefault();//What each species evolves into.
+
+    private final CreatureMap creatures;//The creatures, keyed by ID in the order they were added.
+    private volatile Creature activeCreature;
     private Evolution evolution;
+    private volatile int version;//Counts the changes to the list of creatures.
+    private volatile Snapshot snapshot = new Snapshot(0, Collections.emptyList());//The immutable copy of the creatures returned by getCreatures().
+    private final StampedLock lock;//Guards the inventory in concurrent mode, or null.
+    private volatile InventoryJournal journal;//Records every change of the inventory, or null.
+    private volatile InventoryListener[] listeners = new InventoryListener[0];//Receive every change of the inventory; replaced under the write lock, never changed.
+    private final Queue<Runnable> events = new ConcurrentLinkedQueue<>();//The changes waiting to be given to the listeners, in the order they were made.
+    private final AtomicBoolean dispatching = new AtomicBoolean();//Whether a thread is giving the waiting changes to the listeners.
+    private final Map<String, List<CreatureMap>> familyIndex = new HashMap<>();//The creatures by family, then by evolution level - 1.
+    private final CreatureIdList[] speciesIndex = new CreatureIdList[Species.count() + 1];//The creatures by species ID, with unregistered species last.
+    private final Set<Long> claimed = ConcurrentHashMap.newKeySet();//The IDs of the creatures claimed by evolutions in progress.
 
     /**
      * Constructs a new Inventory instance and initializes the list of creatures and evolution logic.
      */
     public Inventory() {
-        this.creatures = new ArrayList<>();
+        this(false);
+    }
+
+    /**
+     * Constructs a new Inventory instance that can optionally be shared between threads.
+     *
+     * @param concurrent Whether the inventory is used by more than one thread.
+     */
+    public Inventory(boolean concurrent) {
+        this.creatures = new CreatureMap();
+        this.lock = concurrent ? new StampedLock() : null;
         this.evolution = new Evolution(this); // Initialize evolution logic
     }
 
+    /**
+     * Checks if the inventory can be shared between threads.
+     *
+     * @return true if the inventory was made in concurrent mode, false otherwise.
+     */
+    public boolean isConcurrent() {
+        return lock != null;
+    }
+
+    private long lockWrite() {
+        return lock == null ? 0 : lock.writeLock();
+    }
+
+    private void unlockWrite(long stamp) {
+        if (lock != null) {
+            lock.unlockWrite(stamp);
+        }
+        dispatch();
+    }
+
+    /**
+     * Queues a change for the listeners registered now. Called under the write lock,
+     * so the queue holds the changes in the order they were made.
+     *
+     * @param event Calls one listener with the change.
+     */
+    private void post(Consumer<InventoryListener> event) {
+        InventoryListener[] targets = listeners;
+        if (targets.length > 0) {
+            events.add(() -> {
+                for (InventoryListener listener : targets) {
+                    event.accept(listener);
+                }
+            });
+        }
+    }
+
+    /**
+     * Gives the queued changes to the listeners once the write lock is released. Only
+     * one thread does so at a time; a change queued while another thread, or a
+     * listener further up the stack, is dispatching is delivered by that dispatch.
+     */
+    private void dispatch() {
+        while (!events.isEmpty() && dispatching.compareAndSet(false, true)) {
+            try {
+                Runnable event;
+                while ((event = events.poll()) != null) {
+                    event.run();
+                }
+            } finally {
+                dispatching.set(false);
+            }
+        }
+    }
+
+    /**
+     * Runs a query under the read lock in concurrent mode.
+     *
+     * @param query The query.
+     * @return The result of the query.
+     */
+    private <T> T read(Supplier<T> query) {
+        if (lock == null) {
+            return query.get();
+        }
+        long stamp = lock.readLock();
+        try {
+            return query.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
     /**
      * Adds a creature to the inventory. If no active creature is set, the added creature becomes the active one.
+     * A creature that is already in the inventory is not added again.
      *
      * @param creature The creature to be added to the inventory.
+     * @throws IllegalArgumentException if the inventory is journaled and the creature's species is not in the catalog.
      */
     public void addCreature(Creature creature) {
-        this.creatures.add(creature);
+        long stamp = lockWrite();
+        try {
+            checkJournalable(creature);
+            Creature previous = activeCreature;
+            if (add(creature, InventoryJournal.ADD)) {
+                post(listener -> listener.creatureAdded(creature));
+            }
+            fireActiveChanged(previous);
+        } finally {
+            unlockWrite(stamp);
+        }
+    }
+
+    private boolean add(Creature creature, byte record) {
+        if (!creatures.add(creature)) {
+            return false;
+        }
+        indexOf(creature, true).add(creature);
+        speciesIndexOf(creature).add(creature);
+        version++;
         if (activeCreature == null) {
-            setActiveCreature(creature);
+            activeCreature = creature;
+        }
+        log(record, creature);
+        return true;
+    }
+
+    /**
+     * Adds a listener that receives every change of the inventory. The listener is
+     * first given the current creatures through {@link InventoryListener#creaturesReplaced},
+     * before any later change.
+     *
+     * @param listener The listener.
+     */
+    public void addListener(InventoryListener listener) {
+        long stamp = lockWrite();
+        try {
+            InventoryListener[] added = Arrays.copyOf(listeners, listeners.length + 1);
+            added[listeners.length] = listener;
+            listeners = added;
+            List<Creature> current = currentSnapshot();
+            Creature active = activeCreature;
+            events.add(() -> listener.creaturesReplaced(current, active));
+        } finally {
+            unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes a listener added with {@link #addListener(InventoryListener)}. Changes
+     * made before it was removed may still be given to it.
+     *
+     * @param listener The listener.
+     */
+    public void removeListener(InventoryListener listener) {
+        long stamp = lockWrite();
+        try {
+            List<InventoryListener> remaining = new ArrayList<>(Arrays.asList(listeners));
+            remaining.remove(listener);
+            listeners = remaining.toArray(new InventoryListener[0]);
+        } finally {
+            unlockWrite(stamp);
+        }
+    }
+
+    private void fireActiveChanged(Creature previous) {
+        Creature active = activeCreature;
+        if (!Objects.equals(previous, active)) {
+            post(listener -> listener.activeCreatureChanged(previous, active));
+        }
+    }
+
+    /**
+     * Sets the journal that records the changes of the inventory. Changes are passed
+     * to the journal after they are made, while the write lock is held.
+     *
+     * @param journal The journal, or null to stop journaling.
+     */
+    void setJournal(InventoryJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Checks that the journal can record a creature, before the inventory is changed,
+     * so a creature the journal rejects never gets into the inventory.
+     *
+     * @throws IllegalArgumentException if the inventory is journaled and the creature's species is not in the catalog.
+     */
+    private void checkJournalable(Creature creature) {
+        if (journal != null) {
+            SaveGame.speciesIdOf(creature);
+        }
+    }
+
+    private void log(byte record, Creature creature) {
+        InventoryJournal current = journal;
+        if (current != null) {
+            current.append(record, creature);
         }
     }
 
@@ -38,11 +260,19 @@ public class Inventory {
      * @param creature The creature to set as the active creature.
      */
     public void setActiveCreature(Creature creature) {
-        if (creatures.contains(creature)) {
-            this.activeCreature = creature;
-        } else {
-            System.out.println("Creature not in inventory!");
+        long stamp = lockWrite();
+        try {
+            if (creature != null && creatures.containsId(creature.getId())) {
+                Creature previous = activeCreature;
+                this.activeCreature = creature;
+                log(InventoryJournal.ACTIVE, creature);
+                fireActiveChanged(previous);
+                return;
+            }
+        } finally {
+            unlockWrite(stamp);
         }
+        System.out.println("Creature not in inventory!");
     }
 
     /**
@@ -55,12 +285,142 @@ public class Inventory {
     }
 
     /**
-     * Retrieves a copy of the list of creatures in the inventory.
+     * Retrieves an immutable snapshot of the creatures in the inventory. The same
+     * snapshot is returned until the inventory changes, so repeated calls do not copy
+     * the list; a snapshot never changes after it is returned.
      *
      * @return A list of creatures in the inventory.
      */
     public List<Creature> getCreatures() {
-        return new ArrayList<>(creatures);
+        Snapshot current = snapshot;
+        if (current.version == version) {
+            return current.creatures;
+        }
+        return read(this::currentSnapshot);
+    }
+
+    /**
+     * Gets the snapshot of the creatures without locking. The caller must hold the
+     * lock or be the only thread using the inventory, as the journal is when it is
+     * called during a change.
+     *
+     * @return The immutable list of creatures.
+     */
+    List<Creature> currentSnapshot() {
+        Snapshot current = snapshot;
+        if (current.version != version) {
+            current = new Snapshot(version, Collections.unmodifiableList(creatures.toList()));
+            snapshot = current;
+        }
+        return current.creatures;
+    }
+
+    /**
+     * Gets a creature of the inventory by ID.
+     *
+     * @param id The ID of the creature.
+     * @return The creature, or null if the inventory has no creature with the ID.
+     */
+    public Creature getCreatureById(long id) {
+        return read(() -> creatures.get(id));
+    }
+
+    /**
+     * Sets the health of a creature of the inventory, recording the change in the journal.
+     *
+     * @param creature The creature.
+     * @param health   The new health.
+     * @return true if the creature is in the inventory and its health was set, false otherwise.
+     */
+    public boolean setCreatureHealth(Creature creature, int health) {
+        long stamp = lockWrite();
+        try {
+            if (creature == null || !creatures.containsId(creature.getId())) {
+                return false;
+            }
+            creature.setHealth(health);
+            log(InventoryJournal.HEALTH, creature);
+            return true;
+        } finally {
+            unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Gets the version of the list of creatures, which changes whenever a creature is
+     * added or removed. Callers can compare versions to skip refreshing unchanged views.
+     *
+     * @return The current version.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the number of creatures in the inventory.
+     *
+     * @return The number of creatures.
+     */
+    public int size() {
+        if (lock == null) {
+            return creatures.size();
+        }
+        long stamp = lock.tryOptimisticRead();
+        int size = creatures.size();
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                size = creatures.size();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Checks if a creature is in the inventory.
+     *
+     * @param creature The creature.
+     * @return true if the creature is in the inventory, false otherwise.
+     */
+    public boolean contains(Creature creature) {
+        if (creature == null) {
+            return false;
+        }
+        if (lock == null) {
+            return creatures.containsId(creature.getId());
+        }
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                boolean found = creatures.containsId(creature.getId());
+                if (lock.validate(stamp)) {
+                    return found;
+                }
+            } catch (RuntimeException ex) {
+                // The map was read halfway through a change; retry under the lock.
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return creatures.containsId(creature.getId());
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Checks that a creature made by an evolution does not share its ID with a creature
+     * of the inventory, before any creature is removed.
+     *
+     * @param creature The evolved creature.
+     * @throws IllegalStateException if the ID is already in use.
+     */
+    private void checkNewId(Creature creature) {
+        if (creatures.containsId(creature.getId())) {
+            throw new IllegalStateException("Evolved creature ID " + creature.getId() + " is already in the inventory");
+        }
     }
 
     /**
@@ -71,40 +431,245 @@ public class Inventory {
      * @return true if evolution is successful, false otherwise.
      */
     public boolean evolveCreature(Creature creature1, Creature creature2) {
-        if (creature1 != null && creature2 != null &&
-                creature1.getName().equals(creature2.getName()) &&
-                creature1.getFamily().equals(creature2.getFamily()) &&
-                creature1.getEvolutionLevel() == creature2.getEvolutionLevel()) {
-
-            String evolvedCreatureName = getEvolvedCreatureName(creature1.getName(), creature1.getEvolutionLevel() + 1);
-            
-            if (evolvedCreatureName != null) {
-                Creature evolvedCreature = new Creature(
-                        evolvedCreatureName,
-                        creature1.getType(),
-                        creature1.getFamily(),
-                        creature1.getEvolutionLevel() + 1,
-                        evolvedCreatureName.toLowerCase() + ".png", 
-                        creature1.getMaxHealth() 
-                );
-
-                
-                removeCreature(creature1);
-                removeCreature(creature2);
-                addCreature(evolvedCreature);
-                return true; 
-            }
+        if (canEvolve(creature1, creature2)) {
+            return evolvePair(creature1, creature2) != null;
         }
         return false; 
     }
 
+    /**
+     * Evolves two creatures as one transaction. Both creatures are claimed first, so
+     * of several threads evolving overlapping pairs only one can use each creature and
+     * the others fail without waiting for the write lock. The evolved creature is made
+     * outside the lock, then the two creatures are replaced by it under the write lock
+     * in one step that other threads cannot observe halfway.
+     *
+     * <p>The caller checks that the creatures can evolve together.
+     *
+     * @param creature1 The first creature.
+     * @param creature2 The second creature.
+     * @return The evolved creature, or null if either creature is not in the inventory
+     *         or is being evolved by another thread.
+     */
+    Creature evolvePair(Creature creature1, Creature creature2) {
+        if (creature1.equals(creature2) || !contains(creature1) || !contains(creature2)) {
+            return null;
+        }
+        if (!claimed.add(creature1.getId())) {
+            return null;
+        }
+        try {
+            if (!claimed.add(creature2.getId())) {
+                return null;
+            }
+            try {
+                Creature evolved = createEvolvedCreature(creature1);
+                return evolved != null && publishEvolution(creature1, creature2, evolved) ? evolved : null;
+            } finally {
+                claimed.remove(creature2.getId());
+            }
+        } finally {
+            claimed.remove(creature1.getId());
+        }
+    }
+
+    /**
+     * Replaces two claimed creatures with the creature they evolved into. The creatures
+     * are checked again under the lock, as claims do not stop them from being removed.
+     *
+     * @return true if both creatures were still in the inventory and were replaced, false otherwise.
+     */
+    private boolean publishEvolution(Creature creature1, Creature creature2, Creature evolved) {
+        long stamp = lockWrite();
+        try {
+            if (!creatures.containsId(creature1.getId()) || !creatures.containsId(creature2.getId())) {
+                return false;
+            }
+            checkNewId(evolved);
+            Creature previous = activeCreature;
+            log(InventoryJournal.BEGIN, null);
+            List<Creature> consumed = List.of(remove(creature1), remove(creature2));
+            add(evolved, InventoryJournal.EVOLVE);
+            log(InventoryJournal.COMMIT, null);
+            post(listener -> listener.creaturesEvolved(consumed, List.of(evolved)));
+            fireActiveChanged(previous);
+            return true;
+        } finally {
+            unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Evolves every pair of creatures that can evolve, then evolves pairs of the
+     * evolved creatures again, until no family has a pair left at any level. Only
+     * creatures of registered species are evolved.
+     *
+     * <p>The evolutions are planned by {@link EvolutionPlanner} from the number of
+     * creatures of each species, then applied in one pass, so the whole operation takes
+     * time linear in the number of evolutions. The creatures with the lowest IDs of
+     * each species are the ones evolved. Creatures that would only exist to be evolved
+     * again are never created. If the active creature is evolved, the highest-level
+     * creature created for its family becomes active.
+     *
+     * @return The number of evolutions performed.
+     */
+    public int evolveAll() {
+        long stamp = lockWrite();
+        try {
+            return evolveAllLocked();
+        } finally {
+            unlockWrite(stamp);
+        }
+    }
+
+    private int evolveAllLocked() {
+        EvolutionPlanner.Plan plan = EvolutionPlanner.getDefault().plan(countsLocked());
+        if (plan.getEvolutions() == 0) {
+            return 0;
+        }
+        Creature previous = activeCreature;
+        List<Creature> consumed = new ArrayList<>(2 * plan.getEvolutions());
+        for (int id = 0; id < Species.count(); id++) {
+            CreatureIdList list = speciesIndex[id];
+            int count = plan.getConsumed(id);
+            for (int position = 0; count > 0; position++) {
+                Creature creature = list.get(position);
+                if (creature != null) {
+                    consumed.add(creature);
+                    count--;
+                }
+            }
+        }
+        List<Creature> spawned = new ArrayList<>();
+        for (Species species : plan.getCreatedSpecies()) {
+            spawned.addAll(Creature.spawn(species, plan.getCreated(species)));
+        }
+        for (Creature creature : spawned) {
+            checkNewId(creature);
+        }
+        log(InventoryJournal.BEGIN, null);
+        boolean activeConsumed = false;
+        for (Creature creature : consumed) {
+            activeConsumed |= creature.equals(activeCreature);
+            remove(creature);
+        }
+        List<Creature> created = new ArrayList<>(spawned.size());
+        Creature newest = null;
+        for (Creature creature : spawned) {
+            if (add(creature, InventoryJournal.EVOLVE)) {
+                created.add(creature);
+                if (activeConsumed && creature.getFamily().equals(previous.getFamily())) {
+                    newest = creature;
+                }
+            }
+        }
+        if (newest != null) {
+            activeCreature = newest;
+            log(InventoryJournal.ACTIVE, newest);
+        }
+        log(InventoryJournal.COMMIT, null);
+        post(listener -> listener.creaturesEvolved(consumed, created));
+        fireActiveChanged(previous);
+        return plan.getEvolutions();
+    }
+
+    /**
+     * Counts the creatures of each registered species.
+     *
+     * @return The number of creatures by species ID.
+     */
+    int[] countBySpecies() {
+        return read(this::countsLocked);
+    }
+
+    private int[] countsLocked() {
+        int[] counts = new int[Species.count()];
+        for (int id = 0; id < counts.length; id++) {
+            counts[id] = speciesIndex[id] == null ? 0 : speciesIndex[id].size();
+        }
+        return counts;
+    }
+
+    /**
+     * An immutable copy of the creatures, tagged with the version it was taken at.
+     */
+    private static class Snapshot {
+        private final int version;
+        private final List<Creature> creatures;
+
+        Snapshot(int version, List<Creature> creatures) {
+            this.version = version;
+            this.creatures = creatures;
+        }
+    }
+
+    /**
+     * Replaces every creature of the inventory, such as when a saved game is loaded.
+     *
+     * @param newCreatures The new creatures, in order.
+     * @param active       The new active creature, or null to use the first creature.
+     * @throws IllegalArgumentException if the inventory is journaled and a creature's species is not in the catalog.
+     */
+    public void replaceAll(List<Creature> newCreatures, Creature active) {
+        long stamp = lockWrite();
+        try {
+            for (Creature creature : newCreatures) {
+                checkJournalable(creature);
+            }
+            creatures.clear();
+            creatures.ensureCapacity(newCreatures.size());
+            familyIndex.clear();
+            Arrays.fill(speciesIndex, null);
+            activeCreature = null;
+            version++;
+            log(InventoryJournal.BEGIN, null);
+            log(InventoryJournal.CLEAR, null);
+            for (Creature creature : newCreatures) {
+                add(creature, InventoryJournal.ADD);
+            }
+            if (active != null && creatures.containsId(active.getId())) {
+                activeCreature = active;
+            }
+            if (activeCreature != null) {
+                log(InventoryJournal.ACTIVE, activeCreature);
+            }
+            log(InventoryJournal.COMMIT, null);
+            if (listeners.length > 0) {
+                List<Creature> replaced = currentSnapshot();
+                Creature replacedActive = activeCreature;
+                post(listener -> listener.creaturesReplaced(replaced, replacedActive));
+            }
+        } finally {
+            unlockWrite(stamp);
+        }
+    }
+
     /**
      * Removes a creature from the inventory.
      *
      * @param creature The creature to be removed.
      */
     public void removeCreature(Creature creature) {
-        creatures.remove(creature);
+        long stamp = lockWrite();
+        try {
+            Creature removed = remove(creature);
+            if (removed != null) {
+                post(listener -> listener.creatureRemoved(removed));
+            }
+        } finally {
+            unlockWrite(stamp);
+        }
+    }
+
+    private Creature remove(Creature creature) {
+        Creature removed = creature == null ? null : creatures.remove(creature.getId());
+        if (removed != null) {
+            indexOf(removed, true).remove(removed.getId());
+            speciesIndexOf(removed).remove(removed.getId());
+            version++;
+            log(InventoryJournal.REMOVE, removed);
+        }
+        return removed;
     }
 
 
@@ -121,65 +686,254 @@ public class Inventory {
                 creature1.getName().equals(creature2.getName()) &&
                 creature1.getFamily().equals(creature2.getFamily()) &&
                 creature1.getEvolutionLevel() == creature2.getEvolutionLevel() &&
-                creature1.getEvolutionLevel() < 3;
+                EVOLUTIONS.canEvolve(creature1.getSpecies());
+    }
+
+    /**
+     * Gets the set of creatures of the same family and evolution level as a creature.
+     *
+     * @param creature The creature.
+     * @param create   Whether to create the set if it does not exist yet.
+     * @return The set, or null if it does not exist and create is false.
+     */
+    private CreatureMap indexOf(Creature creature, boolean create) {
+        List<CreatureMap> levels = familyIndex.get(creature.getFamily());
+        if (levels == null) {
+            if (!create) {
+                return null;
+            }
+            levels = new ArrayList<>(MAX_EVOLUTION_LEVEL);
+            familyIndex.put(creature.getFamily(), levels);
+        }
+        int level = Math.max(creature.getEvolutionLevel(), 1);
+        while (levels.size() < level) {
+            if (!create) {
+                return null;
+            }
+            levels.add(new CreatureMap());
+        }
+        return levels.get(level - 1);
+    }
+
+    private CreatureIdList speciesIndexOf(Creature creature) {
+        int slot = creature.getSpecies().getId();
+        if (slot == Species.UNREGISTERED) {
+            slot = speciesIndex.length - 1;
+        }
+        CreatureIdList list = speciesIndex[slot];
+        if (list == null) {
+            list = new CreatureIdList();
+            speciesIndex[slot] = list;
+        }
+        return list;
+    }
+
+    /**
+     * Gets a page of the creatures that match a query, in the query's order of ID. Pages
+     * are stable: the next page starts after the last ID of this one, so creatures
+     * added or removed in the meantime never shift a creature into a page twice.
+     * Only the creatures of the species the query can match are read.
+     *
+     * @param query   The query.
+     * @param afterId The ID after which the page starts in the query's order, or -1 for the first page.
+     * @param limit   The largest number of creatures on the page.
+     * @return The page.
+     * @throws IllegalArgumentException if the limit is not positive.
+     */
+    public Page query(InventoryQuery query, long afterId, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page limit must be positive: " + limit);
+        }
+        return read(() -> findPage(query, afterId, limit));
+    }
+
+    /**
+     * Gets the first page of the creatures that match a query. See
+     * {@link #query(InventoryQuery, long, int)}.
+     *
+     * @param query The query.
+     * @param limit The largest number of creatures on the page.
+     * @return The page.
+     */
+    public Page query(InventoryQuery query, int limit) {
+        return query(query, -1, limit);
     }
 
     /**
- * Creates an evolved creature based on the provided base creature.
+     * Counts the creatures that match a query. Without a health range or unregistered
+     * species this only adds up index sizes.
+     *
+     * @param query The query.
+     * @return The number of matching creatures.
+     */
+    public int count(InventoryQuery query) {
+        return read(() -> {
+            int count = 0;
+            for (IndexCursor cursor : cursorsFor(query, -1)) {
+                if (cursor.unregistered || query.hasHealthFilter()) {
+                    for (int position = 0; position < cursor.list.end(); position++) {
+                        Creature creature = cursor.list.get(position);
+                        count += creature != null && cursor.matches(creature, query) ? 1 : 0;
+                    }
+                } else {
+                    count += cursor.list.size();
+                }
+            }
+            return count;
+        });
+    }
+
+    private Page findPage(InventoryQuery query, long afterId, int limit) {
+        PriorityQueue<IndexCursor> queue = new PriorityQueue<>();
+        for (IndexCursor cursor : cursorsFor(query, afterId)) {
+            if (cursor.skipHoles()) {
+                queue.add(cursor);
+            }
+        }
+        List<Creature> found = new ArrayList<>(Math.min(limit, creatures.size()));
+        boolean more = false;
+        while (!queue.isEmpty()) {
+            IndexCursor cursor = queue.poll();
+            Creature creature = cursor.list.get(cursor.position);
+            if (cursor.matches(creature, query)) {
+                if (found.size() == limit) {
+                    more = true;
+                    break;
+                }
+                found.add(creature);
+            }
+            cursor.advance();
+            if (cursor.skipHoles()) {
+                queue.add(cursor);
+            }
+        }
+        long last = found.isEmpty() ? afterId : found.get(found.size() - 1).getId();
+        return new Page(Collections.unmodifiableList(found), last, more);
+    }
+
+    private List<IndexCursor> cursorsFor(InventoryQuery query, long afterId) {
+        boolean newestFirst = query.getOrder() == InventoryQuery.Order.NEWEST_FIRST;
+        List<IndexCursor> cursors = new ArrayList<>();
+        for (int speciesId : query.getSpeciesIds()) {
+            CreatureIdList list = speciesIndex[speciesId];
+            if (list != null && list.size() > 0) {
+                cursors.add(new IndexCursor(list, afterId, false, newestFirst));
+            }
+        }
+        CreatureIdList unregistered = speciesIndex[speciesIndex.length - 1];
+        if (unregistered != null && unregistered.size() > 0) {
+            cursors.add(new IndexCursor(unregistered, afterId, true, newestFirst));
+        }
+        return cursors;
+    }
+
+    /**
+     * Finds one creature that can evolve together with the given creature, without
+     * scanning the inventory.
+     *
+     * @param creature The creature.
+     * @return A creature that can evolve with it, or null if there is none.
+     */
+    public Creature findEvolutionPartner(Creature creature) {
+        return read(() -> findPartner(creature));
+    }
+
+    private Creature findPartner(Creature creature) {
+        CreatureMap candidates = indexOf(creature, false);
+        if (candidates == null || !EVOLUTIONS.canEvolve(creature.getSpecies())) {
+            return null;
+        }
+        for (Creature candidate : candidates) {
+            if (!candidate.equals(creature) && canEvolve(creature, candidate)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets every creature that can evolve together with the given creature. Only the
+     * creatures of the same family and evolution level are looked at.
+     *
+     * @param creature The creature.
+     * @return The creatures that can evolve with it, in the order they were added.
+     */
+    public List<Creature> getEvolutionPartners(Creature creature) {
+        return read(() -> findPartners(creature));
+    }
+
+    private List<Creature> findPartners(Creature creature) {
+        List<Creature> partners = new ArrayList<>();
+        CreatureMap candidates = indexOf(creature, false);
+        if (candidates != null && EVOLUTIONS.canEvolve(creature.getSpecies())) {
+            for (Creature candidate : candidates) {
+                if (!candidate.equals(creature) && canEvolve(creature, candidate)) {
+                    partners.add(candidate);
+                }
+            }
+        }
+        return partners;
+    }
+
+    /**
+     * Gets pairs of creatures that can evolve together. No creature is in more than
+     * one pair, so all of the pairs can be evolved one after the other.
+     *
+     * @return The evolvable pairs.
+     */
+    public List<EvolutionPair> getEvolvablePairs() {
+        return read(this::findPairs);
+    }
+
+    private List<EvolutionPair> findPairs() {
+        List<EvolutionPair> pairs = new ArrayList<>();
+        for (List<CreatureMap> levels : familyIndex.values()) {
+            for (int level = 1; level <= levels.size(); level++) {
+                Map<String, Creature> unpaired = new HashMap<>();
+                for (Creature creature : levels.get(level - 1)) {
+                    if (!EVOLUTIONS.canEvolve(creature.getSpecies())) {
+                        continue;
+                    }
+                    Creature partner = unpaired.remove(creature.getName());
+                    if (partner != null) {
+                        pairs.add(new EvolutionPair(partner, creature));
+                    } else {
+                        unpaired.put(creature.getName(), creature);
+                    }
+                }
+            }
+        }
+        return pairs;
+    }
+
+    /**
+ * Creates an evolved creature based on the provided base creature, of the species
+ * the {@link EvolutionGraph} gives as its main evolution.
  *
  * @param baseCreature The base creature from which the evolved creature will be created.
- * @return The evolved creature.
+ * @return The evolved creature, or null if the base creature's species does not evolve.
  */
 
     public Creature createEvolvedCreature(Creature baseCreature) {
-        String evolvedName = getEvolvedCreatureName(baseCreature.getName(), baseCreature.getEvolutionLevel() + 1);
-        String evolvedImagePath = "/" + evolvedName.toLowerCase() + ".png";
-        int evolvedMaxHealth = baseCreature.getMaxHealth(); 
-
-        return new Creature(evolvedName, baseCreature.getType(), baseCreature.getFamily(),
-                baseCreature.getEvolutionLevel() + 1, evolvedImagePath, evolvedMaxHealth);
+        Species evolved = EVOLUTIONS.next(baseCreature.getSpecies());
+        return evolved == null ? null : new Creature(evolved);
     }
 
     /**
- * Determines the name of the evolved creature based on the base creature's name and evolution level.
+ * Determines the name of the evolved creature based on the base creature's name and evolution level,
+ * following the main evolutions of the {@link EvolutionGraph}.
  *
  * @param name           The name of the base creature.
- * @param evolutionLevel The evolution level of the base creature.
- * @return The name of the evolved creature.
+ * @param evolutionLevel The evolution level of the evolved creature.
+ * @return The name of the evolved creature, or an empty string if there is none.
  */
     public String getEvolvedCreatureName(String name, int evolutionLevel) {
 
-        String evolvedName = "";
-        switch (name) {
-            case "Strawander":
-                evolvedName = evolutionLevel == 2 ? "Strawleon" : "Strawizard";
-                break;
-            case "Chocowool":
-                evolvedName = evolutionLevel == 2 ? "Chocofluff" : "Candaros";
-                break;
-            case "Parfwit":
-                evolvedName = evolutionLevel == 2 ? "Parfure" : "Parfelure";
-                break;
-            case "Brownisaur":
-                evolvedName = evolutionLevel == 2 ? "Chocosaur" : "Fudgasaur";
-                break;
-            case "Frubat":
-                evolvedName = evolutionLevel == 2 ? "Golberry" : "Croberry";
-                break;
-            case "Malts":
-                evolvedName = evolutionLevel == 2 ? "Kirlicake" : "Velvevoir";
-                break;
-            case "Squirpie":
-                evolvedName = evolutionLevel == 2 ? "Tartortle" : "Piestoise";
-                break;
-            case "Chocolite":
-                evolvedName = evolutionLevel == 2 ? "Chocolish" : "Icesundae";
-                break;
-            case "Oshacone":
-                evolvedName = evolutionLevel == 2 ? "Dewice" : "Samurcone";
-                break;
-        }
-        return evolvedName;
+        Species species = Species.byName(name);
+        while (species != null && species.getEvolutionLevel() < evolutionLevel) {
+            species = EVOLUTIONS.next(species);
+        }
+        return species == null || species.getEvolutionLevel() != evolutionLevel ? "" : species.getName();
     }
 
     /**
@@ -188,8 +942,133 @@ public class Inventory {
      * @return A list of creatures eligible for evolution.
      */
     public List<Creature> getCreaturesEligibleForEvolution() {
-        return creatures.stream()
-                .filter(creature -> creature.getEvolutionLevel() < 3)
+        return getCreatures().stream()
+                .filter(creature -> EVOLUTIONS.canEvolve(creature.getSpecies()))
                 .collect(Collectors.toList());
     }
+
+    /**
+     * A position in one species' list of creatures, ordered by the ID at that position
+     * so the lists of several species can be merged in ID order. A cursor over the
+     * newest creatures first walks its list backwards.
+     */
+    private static class IndexCursor implements Comparable<IndexCursor> {
+        private final CreatureIdList list;
+        private final boolean unregistered;//Whether the list holds creatures of unregistered species, which are checked one by one.
+        private final boolean newestFirst;//Whether the cursor moves towards lower IDs.
+        private int position;
+
+        IndexCursor(CreatureIdList list, long afterId, boolean unregistered, boolean newestFirst) {
+            this.list = list;
+            this.unregistered = unregistered;
+            this.newestFirst = newestFirst;
+            if (!newestFirst) {
+                this.position = list.firstAfter(afterId);
+            } else if (afterId == -1) {
+                this.position = list.end() - 1;
+            } else {
+                this.position = list.firstAfter(afterId - 1) - 1;
+            }
+        }
+
+        boolean skipHoles() {
+            if (newestFirst) {
+                while (position >= 0 && list.get(position) == null) {
+                    position--;
+                }
+                return position >= 0;
+            }
+            while (position < list.end() && list.get(position) == null) {
+                position++;
+            }
+            return position < list.end();
+        }
+
+        void advance() {
+            position += newestFirst ? -1 : 1;
+        }
+
+        boolean matches(Creature creature, InventoryQuery query) {
+            return unregistered ? query.matches(creature) : query.matchesHealth(creature);
+        }
+
+        @Override
+        public int compareTo(IndexCursor other) {
+            int comparison = Long.compare(list.getId(position), other.list.getId(other.position));
+            return newestFirst ? -comparison : comparison;
+        }
+    }
+
+    /**
+     * The Page class holds one page of the creatures found by a query.
+     */
+    public static class Page {
+        private final List<Creature> creatures;
+        private final long lastId;
+        private final boolean more;
+
+        Page(List<Creature> creatures, long lastId, boolean more) {
+            this.creatures = creatures;
+            this.lastId = lastId;
+            this.more = more;
+        }
+
+        /**
+         * Gets the creatures of the page.
+         *
+         * @return The creatures, in the query's order of ID.
+         */
+        public List<Creature> getCreatures() {
+            return creatures;
+        }
+
+        /**
+         * Gets the ID to pass to {@link Inventory#query(InventoryQuery, long, int)} for the next page.
+         *
+         * @return The ID of the last creature of the page, or the ID the page started after if it is empty.
+         */
+        public long getLastId() {
+            return lastId;
+        }
+
+        /**
+         * Checks if more creatures matched after this page.
+         *
+         * @return true if there is a next page, false otherwise.
+         */
+        public boolean hasMore() {
+            return more;
+        }
+    }
+
+    /**
+     * The EvolutionPair class holds two creatures that can evolve together.
+     */
+    public static class EvolutionPair {
+        private final Creature first;
+        private final Creature second;
+
+        EvolutionPair(Creature first, Creature second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        /**
+         * Gets the first creature of the pair.
+         *
+         * @return The first creature.
+         */
+        public Creature getFirst() {
+            return first;
+        }
+
+        /**
+         * Gets the second creature of the pair.
+         *
+         * @return The second creature.
+         */
+        public Creature getSecond() {
+            return second;
+        }
+    }
 }
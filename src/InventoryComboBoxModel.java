@@ -0,0 +1,320 @@
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * The InventoryComboBoxModel class keeps a combo box in step with an {@link Inventory}
+ * by applying the inventory's change events instead of reloading every creature. The
+ * model lists the creatures that pass a filter, in inventory order, and can leave out
+ * the active creature.
+ *
+ * <p>Events may arrive on any thread. They are merged until the event dispatch thread
+ * applies them, so a burst of changes, such as an evolution of every creature, becomes
+ * a single update of the combo box.
+ *
+ */
+public class InventoryComboBoxModel extends AbstractListModel<Creature> implements ComboBoxModel<Creature>, InventoryListener {
+    private static final long serialVersionUID = 1L;//The version of the serialized form inherited from AbstractListModel.
+    private static final int MAX_SINGLE_REMOVALS = 32;//The number of removals above which the list is compacted in one pass.
+
+    private final Inventory inventory;//The inventory shown by the model.
+    private final Predicate<Creature> filter;//Decides which creatures are listed.
+    private final boolean excludeActive;//Whether the active creature is left out.
+
+    // Read and written on the event dispatch thread only.
+    private Creature[] items = new Creature[16];//The listed creatures, in inventory order.
+    private long[] sequences = new long[16];//The position of each listed creature in inventory order.
+    private int size;//The number of listed creatures.
+    private final Map<Long, Long> sequenceById = new HashMap<>();//The inventory order of every creature, listed or not, by creature ID.
+    private long nextSequence;//The inventory order given to the next added creature.
+    private Creature active;//The active creature.
+    private Object selected;//The selected creature, or null.
+
+    // Guarded by this model; written by the inventory's events.
+    private List<Creature> pendingReplaced;//The creatures that replaced the inventory, or null.
+    private Creature pendingReplacedActive;//The active creature when the inventory was replaced.
+    private final Map<Long, Creature> pendingRemoved = new LinkedHashMap<>();//The removed creatures, by ID.
+    private final Map<Long, Creature> pendingAdded = new LinkedHashMap<>();//The added creatures in order, by ID.
+    private boolean pendingActiveChanged;//Whether the active creature changed.
+    private Creature pendingActive;//The new active creature.
+    private boolean scheduled;//Whether an update is waiting on the event dispatch thread.
+
+    /**
+     * Constructs a model listing every creature of an inventory.
+     *
+     * @param inventory The inventory.
+     */
+    public InventoryComboBoxModel(Inventory inventory) {
+        this(inventory, creature -> true, false);
+    }
+
+    /**
+     * Constructs a model listing the creatures of an inventory that pass a filter. The
+     * filter must only depend on data of a creature that does not change, such as its
+     * species. The model starts listening to the inventory right away and is filled on
+     * the event dispatch thread.
+     *
+     * @param inventory     The inventory.
+     * @param filter        Decides which creatures are listed.
+     * @param excludeActive Whether to leave out the active creature.
+     */
+    public InventoryComboBoxModel(Inventory inventory, Predicate<Creature> filter, boolean excludeActive) {
+        this.inventory = inventory;
+        this.filter = filter;
+        this.excludeActive = excludeActive;
+        inventory.addListener(this);
+    }
+
+    /**
+     * Stops listening to the inventory, such as when the window showing the model is closed.
+     */
+    public void detach() {
+        inventory.removeListener(this);
+    }
+
+    @Override
+    public synchronized void creatureAdded(Creature creature) {
+        pendingAdded.put(creature.getId(), creature);
+        schedule();
+    }
+
+    @Override
+    public synchronized void creatureRemoved(Creature creature) {
+        pendingAdded.remove(creature.getId());
+        pendingRemoved.put(creature.getId(), creature);
+        schedule();
+    }
+
+    @Override
+    public synchronized void creaturesEvolved(List<Creature> consumed, List<Creature> evolved) {
+        for (Creature creature : consumed) {
+            pendingAdded.remove(creature.getId());
+            pendingRemoved.put(creature.getId(), creature);
+        }
+        for (Creature creature : evolved) {
+            pendingAdded.put(creature.getId(), creature);
+        }
+        schedule();
+    }
+
+    @Override
+    public synchronized void activeCreatureChanged(Creature previous, Creature active) {
+        pendingActiveChanged = true;
+        pendingActive = active;
+        schedule();
+    }
+
+    @Override
+    public synchronized void creaturesReplaced(List<Creature> creatures, Creature active) {
+        pendingReplaced = creatures;
+        pendingReplacedActive = active;
+        pendingRemoved.clear();
+        pendingAdded.clear();
+        pendingActiveChanged = false;
+        pendingActive = null;
+        schedule();
+    }
+
+    private void schedule() {
+        if (!scheduled) {
+            scheduled = true;
+            SwingUtilities.invokeLater(this::applyPending);
+        }
+    }
+
+    /**
+     * Applies the changes received since the last update. Runs on the event dispatch thread.
+     */
+    private void applyPending() {
+        List<Creature> replaced;
+        Creature replacedActive;
+        List<Creature> removed;
+        List<Creature> added;
+        boolean activeChanged;
+        Creature newActive;
+        synchronized (this) {
+            replaced = pendingReplaced;
+            replacedActive = pendingReplacedActive;
+            removed = new ArrayList<>(pendingRemoved.values());
+            added = new ArrayList<>(pendingAdded.values());
+            activeChanged = pendingActiveChanged;
+            newActive = pendingActive;
+            pendingReplaced = null;
+            pendingReplacedActive = null;
+            pendingRemoved.clear();
+            pendingAdded.clear();
+            pendingActiveChanged = false;
+            pendingActive = null;
+            scheduled = false;
+        }
+        Object oldSelected = selected;
+        if (replaced != null) {
+            replace(replaced, replacedActive);
+        }
+        removeAll(removed);
+        if (activeChanged) {
+            changeActive(newActive);
+        }
+        appendAll(added);
+        if (selected != null && indexOf((Creature) selected) < 0) {
+            selected = null;
+        }
+        if (selected == null && size > 0) {
+            selected = items[0];
+        }
+        if (selected != oldSelected) {
+            fireContentsChanged(this, -1, -1);
+        }
+    }
+
+    private void replace(List<Creature> creatures, Creature newActive) {
+        int oldSize = size;
+        Arrays.fill(items, 0, size, null);
+        size = 0;
+        sequenceById.clear();
+        nextSequence = 0;
+        active = newActive;
+        if (oldSize > 0) {
+            fireIntervalRemoved(this, 0, oldSize - 1);
+        }
+        appendAll(creatures);
+    }
+
+    private void removeAll(List<Creature> removed) {
+        int[] indexes = new int[removed.size()];
+        int count = 0;
+        for (Creature creature : removed) {
+            Long sequence = sequenceById.remove(creature.getId());
+            int index = sequence == null ? -1 : Arrays.binarySearch(sequences, 0, size, sequence);
+            if (index >= 0) {
+                indexes[count++] = index;
+            }
+        }
+        if (count == 0) {
+            return;
+        }
+        Arrays.sort(indexes, 0, count);
+        if (count <= MAX_SINGLE_REMOVALS) {
+            for (int i = count - 1; i >= 0; i--) {
+                removeAt(indexes[i]);
+                fireIntervalRemoved(this, indexes[i], indexes[i]);
+            }
+            return;
+        }
+        int oldSize = size;
+        int next = 0;
+        int skip = 0;
+        for (int i = 0; i < oldSize; i++) {
+            if (skip < count && indexes[skip] == i) {
+                skip++;
+                continue;
+            }
+            items[next] = items[i];
+            sequences[next++] = sequences[i];
+        }
+        Arrays.fill(items, next, oldSize, null);
+        size = next;
+        fireIntervalRemoved(this, size, oldSize - 1);
+        fireContentsChanged(this, 0, Math.max(size - 1, 0));
+    }
+
+    private void removeAt(int index) {
+        System.arraycopy(items, index + 1, items, index, size - index - 1);
+        System.arraycopy(sequences, index + 1, sequences, index, size - index - 1);
+        items[--size] = null;
+    }
+
+    /**
+     * Moves the active creature. With the active creature left out, the previous one is
+     * listed again at its place in inventory order and the new one is taken out.
+     */
+    private void changeActive(Creature newActive) {
+        Creature previous = active;
+        active = newActive;
+        if (!excludeActive || Objects.equals(previous, newActive)) {
+            return;
+        }
+        if (newActive != null) {
+            int index = indexOf(newActive);
+            if (index >= 0) {
+                removeAt(index);
+                fireIntervalRemoved(this, index, index);
+            }
+        }
+        if (previous != null && filter.test(previous)) {
+            Long sequence = sequenceById.get(previous.getId());
+            if (sequence != null && Arrays.binarySearch(sequences, 0, size, sequence) < 0) {
+                int index = -Arrays.binarySearch(sequences, 0, size, sequence) - 1;
+                grow(size + 1);
+                System.arraycopy(items, index, items, index + 1, size - index);
+                System.arraycopy(sequences, index, sequences, index + 1, size - index);
+                items[index] = previous;
+                sequences[index] = sequence;
+                size++;
+                fireIntervalAdded(this, index, index);
+            }
+        }
+    }
+
+    private void appendAll(List<Creature> creatures) {
+        int start = size;
+        grow(size + creatures.size());
+        for (Creature creature : creatures) {
+            long sequence = nextSequence++;
+            sequenceById.put(creature.getId(), sequence);
+            if (filter.test(creature) && !(excludeActive && creature.equals(active))) {
+                items[size] = creature;
+                sequences[size++] = sequence;
+            }
+        }
+        if (size > start) {
+            fireIntervalAdded(this, start, size - 1);
+        }
+    }
+
+    private void grow(int capacity) {
+        if (capacity > items.length) {
+            int length = Math.max(capacity, items.length + (items.length >> 1));
+            items = Arrays.copyOf(items, length);
+            sequences = Arrays.copyOf(sequences, length);
+        }
+    }
+
+    private int indexOf(Creature creature) {
+        Long sequence = sequenceById.get(creature.getId());
+        if (sequence == null) {
+            return -1;
+        }
+        int index = Arrays.binarySearch(sequences, 0, size, sequence);
+        return index >= 0 && items[index].equals(creature) ? index : -1;
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public Creature getElementAt(int index) {
+        return index >= 0 && index < size ? items[index] : null;
+    }
+
+    @Override
+    public void setSelectedItem(Object item) {
+        if (selected == null ? item != null : !selected.equals(item)) {
+            selected = item;
+            fireContentsChanged(this, -1, -1);
+        }
+    }
+
+    @Override
+    public Object getSelectedItem() {
+        return selected;
+    }
+}
@@ -1,7 +1,6 @@
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
-import java.util.List;
 
 /**
  * The InventoryGUI class provides a graphical user interface for managing a player's creature inventory.
@@ -11,6 +10,7 @@ public class InventoryGUI extends JFrame {
     private Inventory inventory;
     private GameManager gameManager;
     private JComboBox<Creature> creatureComboBox;
+    private InventoryComboBoxModel creatureModel;//Keeps the combo box in step with the inventory.
     private JLabel activeCreatureLabel;
     private JLabel creatureImageLabel; // Label to display the image of the creature
 
@@ -34,9 +34,9 @@ public class InventoryGUI extends JFrame {
         setLayout(new BorderLayout());
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
 
-        creatureComboBox = new JComboBox<>();
+        creatureModel = new InventoryComboBoxModel(inventory);
+        creatureComboBox = new JComboBox<>(creatureModel);
         creatureComboBox.setRenderer(new CreatureListCellRenderer()); // Custom renderer to show images in the combo box
-        updateCreatureComboBox();
 
         creatureComboBox.addActionListener(this::onCreatureSelected); // Add action listener to handle creature selection
 
@@ -69,14 +69,12 @@ public class InventoryGUI extends JFrame {
     }
 
     /**
-     * Updates the creature combo box with the creatures from the inventory.
+     * Closes the window and stops following the inventory.
      */
-    public void updateCreatureComboBox() {
-        creatureComboBox.removeAllItems();
-        List<Creature> creatures = inventory.getCreatures();
-        for (Creature creature : creatures) {
-            creatureComboBox.addItem(creature);
-        }
+    @Override
+    public void dispose() {
+        creatureModel.detach();
+        super.dispose();
     }
 
     /**
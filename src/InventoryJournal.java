@@ -0,0 +1,462 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * The InventoryJournal class is a write-ahead log of every change to an
+ * {@link Inventory}, so a game survives a crash without saving the whole inventory
+ * after each capture or evolution. Each change appends one {@value #RECORD_SIZE}-byte
+ * record; a background thread writes the records and syncs them to disk in groups,
+ * every {@value #GROUP_COMMIT_MILLIS} ms or sooner when {@link #flush()} is called.
+ *
+ * <p>The journal lives in a directory of numbered segment files and {@link SaveGame}
+ * snapshots. Snapshot N holds the inventory from before segment N, so recovery loads
+ * the newest snapshot and replays the segments from its number on. Once a segment
+ * reaches its size limit, a new segment is started and a background thread writes a
+ * new snapshot and deletes the files it replaces. Every record sets an absolute value,
+ * so replaying records the snapshot already contains does no harm.
+ *
+ * <p>Each record is little-endian: CRC32 of the rest of the record (int), record type
+ * (byte), three reserved bytes, creature ID (long), species ID (int), health (int) and
+ * eight reserved bytes. Records between a BEGIN and a COMMIT record, such as the two
+ * removals and the addition of an evolution, are only replayed together. A record with
+ * a bad checksum ends the replay of its segment, which drops a write torn by a crash.
+ *
+ */
+public class InventoryJournal implements Closeable {
+    public static final int RECORD_SIZE = 32;//The size of one record in bytes.
+    public static final byte ADD = 1;//A creature was added.
+    public static final byte REMOVE = 2;//A creature was removed.
+    public static final byte ACTIVE = 3;//The active creature was set.
+    public static final byte HEALTH = 4;//A creature's health was set.
+    public static final byte EVOLVE = 5;//A creature was added by evolving others.
+    public static final byte CLEAR = 6;//Every creature was removed.
+    public static final byte BEGIN = 7;//Starts records that are replayed together.
+    public static final byte COMMIT = 8;//Ends records that are replayed together.
+    public static final long DEFAULT_SEGMENT_SIZE = 4L << 20;//The segment size after which a snapshot is taken.
+    private static final long GROUP_COMMIT_MILLIS = 5;//The longest a record waits to be synced.
+    private static final int REPLAY_BATCH = 1024;//The number of records read at a time when a segment is replayed.
+
+    private final Path directory;//The directory holding the segments and snapshots.
+    private final Inventory inventory;//The inventory being journaled.
+    private final long segmentSize;//The size after which a new segment is started.
+    private final CRC32 crc = new CRC32();
+    private final Thread flusher;//The thread writing and syncing records.
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "inventory-journal-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });//Writes snapshots and deletes old files.
+    private final List<FileChannel> retired = new ArrayList<>();//Finished segments still to be synced and closed.
+    private ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE * 1024).order(ByteOrder.LITTLE_ENDIAN);//The records not yet written.
+    private FileChannel channel;//The current segment.
+    private long segment;//The number of the current segment.
+    private long segmentBytes;//The bytes appended to the current segment.
+    private int groupDepth;//The number of open groups.
+    private long appended;//The number of records appended.
+    private long durable;//The number of records synced to disk.
+    private boolean flushRequested;
+    private boolean flusherIdle;//Whether the flusher waits for the first record of a group.
+    private boolean closed;
+    private IOException failure;//The error that stopped the flusher, if any.
+
+    private InventoryJournal(Path directory, Inventory inventory, long segmentSize, long segment) throws IOException {
+        this.directory = directory;
+        this.inventory = inventory;
+        this.segmentSize = segmentSize;
+        this.segment = segment;
+        this.channel = openSegment(segment);
+        this.flusher = new Thread(this::flushLoop, "inventory-journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Opens the journal in a directory with the default segment size. See
+     * {@link #open(Path, Inventory, long)}.
+     *
+     * @param directory The journal directory; it is created if it does not exist.
+     * @param inventory The inventory to restore and journal.
+     * @return The journal.
+     * @throws IOException if the directory cannot be read or written.
+     * @throws IllegalArgumentException if a creature of the inventory has a species that is not in the catalog.
+     */
+    public static InventoryJournal open(Path directory, Inventory inventory) throws IOException {
+        return open(directory, inventory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Opens the journal in a directory. If the directory holds a journal, the inventory
+     * is replaced by the state it records; otherwise the inventory's current creatures
+     * become the journal's first snapshot. From then on every change to the inventory
+     * is journaled.
+     *
+     * @param directory   The journal directory; it is created if it does not exist.
+     * @param inventory   The inventory to restore and journal.
+     * @param segmentSize The segment size in bytes after which a new segment and snapshot are started.
+     * @return The journal.
+     * @throws IOException if the directory cannot be read or written, or a snapshot or record is invalid.
+     * @throws IllegalArgumentException if a creature of the inventory has a species that is not in the catalog.
+     */
+    public static InventoryJournal open(Path directory, Inventory inventory, long segmentSize) throws IOException {
+        Files.createDirectories(directory);
+        TreeMap<Long, Path> segments = new TreeMap<>();
+        TreeMap<Long, Path> snapshots = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.startsWith("journal-") && name.endsWith(".log")) {
+                    segments.put(Long.parseLong(name.substring(8, name.length() - 4)), file);
+                } else if (name.startsWith("snapshot-") && name.endsWith(".sav")) {
+                    snapshots.put(Long.parseLong(name.substring(9, name.length() - 4)), file);
+                }
+            }
+        }
+        long next = 1;
+        if (!segments.isEmpty() || !snapshots.isEmpty()) {
+            long base = snapshots.isEmpty() ? 0 : snapshots.lastKey();
+            if (base > 0) {
+                SaveGame.open(snapshots.get(base)).loadInto(inventory);
+            } else {
+                inventory.replaceAll(Collections.emptyList(), null);
+            }
+            for (Path file : segments.tailMap(base).values()) {
+                replay(file, inventory);
+            }
+            next = Math.max(base, segments.isEmpty() ? 0 : segments.lastKey()) + 1;
+        }
+        for (Creature creature : inventory.getCreatures()) {
+            SaveGame.speciesIdOf(creature);
+        }
+        InventoryJournal journal = new InventoryJournal(directory, inventory, segmentSize, next);
+        journal.compactAsync(next, inventory.getCreatures(), inventory.getActiveCreature());
+        inventory.setJournal(journal);
+        return journal;
+    }
+
+    private FileChannel openSegment(long number) throws IOException {
+        return FileChannel.open(directory.resolve(String.format("journal-%08d.log", number)),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Applies the complete records of a segment file to an inventory. The segment is
+     * read {@value #REPLAY_BATCH} records at a time; only the records of an open group
+     * are kept until its COMMIT record is read.
+     */
+    private static void replay(Path file, Inventory inventory) throws IOException {
+        ByteBuffer records = ByteBuffer.allocate(RECORD_SIZE * REPLAY_BATCH).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer group = null;//The records of the open group.
+        CRC32 check = new CRC32();
+        try (FileChannel segment = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (segment.read(records) >= 0) {
+                records.flip();
+                for (; records.remaining() >= RECORD_SIZE; records.position(records.position() + RECORD_SIZE)) {
+                    int offset = records.position();
+                    check.reset();
+                    check.update(records.array(), offset + 4, RECORD_SIZE - 4);
+                    if ((int) check.getValue() != records.getInt(offset)) {
+                        return;
+                    }
+                    byte type = records.get(offset + 4);
+                    if (type == BEGIN) {
+                        group = ByteBuffer.allocate(RECORD_SIZE * 4).order(ByteOrder.LITTLE_ENDIAN);
+                    } else if (type == COMMIT) {
+                        if (group != null) {
+                            for (int member = 0; member < group.position(); member += RECORD_SIZE) {
+                                apply(group, member, inventory);
+                            }
+                        }
+                        group = null;
+                    } else if (group != null) {
+                        if (group.remaining() < RECORD_SIZE) {
+                            group.flip();
+                            group = ByteBuffer.allocate(group.capacity() * 2).order(ByteOrder.LITTLE_ENDIAN).put(group);
+                        }
+                        group.put(records.array(), offset, RECORD_SIZE);
+                    } else {
+                        apply(records, offset, inventory);
+                    }
+                }
+                records.compact();
+            }
+        }
+    }
+
+    private static void apply(ByteBuffer records, int offset, Inventory inventory) throws IOException {
+        long id = records.getLong(offset + 8);
+        int speciesId = records.getInt(offset + 16);
+        int health = records.getInt(offset + 20);
+        byte type = records.get(offset + 4);
+        switch (type) {
+            case ADD:
+            case EVOLVE:
+                SpeciesCatalog catalog = SpeciesCatalog.getDefault();
+                if (speciesId < 0 || speciesId >= catalog.size()) {
+                    throw new IOException("Journal record for creature " + id + " has unknown species ID " + speciesId);
+                }
+                Species species = catalog.get(speciesId);
+                checkHealth(id, health, species.getMaxHealth());
+                Creature.advanceNextId(id + 1);
+                inventory.addCreature(Creature.restore(id, species, health));
+                break;
+            case REMOVE:
+                Creature removed = inventory.getCreatureById(id);
+                if (removed != null) {
+                    inventory.removeCreature(removed);
+                }
+                break;
+            case ACTIVE:
+                Creature active = inventory.getCreatureById(id);
+                if (active != null) {
+                    inventory.setActiveCreature(active);
+                }
+                break;
+            case HEALTH:
+                Creature changed = inventory.getCreatureById(id);
+                if (changed != null) {
+                    checkHealth(id, health, changed.getMaxHealth());
+                    changed.setHealth(health);
+                }
+                break;
+            case CLEAR:
+                inventory.replaceAll(Collections.emptyList(), null);
+                break;
+            default:
+                throw new IOException("Journal record for creature " + id + " has unknown type " + type);
+        }
+    }
+
+    private static void checkHealth(long id, int health, int maxHealth) throws IOException {
+        if (health < 0 || health > maxHealth) {
+            throw new IOException("Journal record for creature " + id + " has invalid health " + health);
+        }
+    }
+
+    /**
+     * Appends a record for a creature. Called by the inventory while it holds its write lock.
+     *
+     * @param type     The record type.
+     * @param creature The creature, or null for records without one.
+     */
+    synchronized void append(byte type, Creature creature) {
+        if (closed) {
+            return;
+        }
+        if (buffer.remaining() < RECORD_SIZE) {
+            ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.flip();
+            larger.put(buffer);
+            buffer = larger;
+        }
+        int start = buffer.position();
+        buffer.putInt(0)
+                .put(type)
+                .put((byte) 0)
+                .putShort((short) 0)
+                .putLong(creature == null ? -1 : creature.getId())
+                .putInt(creature == null ? -1 : SaveGame.speciesIdOf(creature))
+                .putInt(creature == null ? 0 : creature.getHealth())
+                .putLong(0);
+        crc.reset();
+        crc.update(buffer.array(), start + 4, RECORD_SIZE - 4);
+        buffer.putInt(start, (int) crc.getValue());
+        appended++;
+        segmentBytes += RECORD_SIZE;
+        if (type == BEGIN) {
+            groupDepth++;
+        } else if (type == COMMIT) {
+            groupDepth--;
+        }
+        if (groupDepth == 0 && segmentBytes >= segmentSize) {
+            roll();
+        } else if (flusherIdle) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Starts a new segment and a snapshot of the inventory at this point. Runs on the
+     * thread changing the inventory, so the creature list it captures is exact.
+     */
+    private void roll() {
+        try {
+            writePending();
+            retired.add(channel);
+            segment++;
+            channel = openSegment(segment);
+            segmentBytes = 0;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        compactAsync(segment, inventory.currentSnapshot(), inventory.getActiveCreature());
+        notifyAll();
+    }
+
+    private void compactAsync(long number, List<Creature> creatures, Creature active) {
+        compactor.execute(() -> {
+            try {
+                SaveGame.write(directory.resolve(String.format("snapshot-%08d.sav", number)), creatures, active);
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+                    for (Path file : files) {
+                        String name = file.getFileName().toString();
+                        if (name.startsWith("journal-") && name.endsWith(".log")
+                                && Long.parseLong(name.substring(8, name.length() - 4)) < number
+                                || name.startsWith("snapshot-") && name.endsWith(".sav")
+                                && Long.parseLong(name.substring(9, name.length() - 4)) < number) {
+                            Files.deleteIfExists(file);
+                        }
+                    }
+                }
+            } catch (IOException ex) {
+                ex.printStackTrace();
+            }
+        });
+    }
+
+    private void writePending() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void flushLoop() {
+        while (true) {
+            long target;
+            FileChannel current;
+            List<FileChannel> finished;
+            synchronized (this) {
+                while (!flushRequested && !closed && appended == durable) {
+                    flusherIdle = true;
+                    waitQuietly(0);
+                }
+                flusherIdle = false;
+                if (!flushRequested && !closed) {
+                    waitQuietly(GROUP_COMMIT_MILLIS);
+                }
+                try {
+                    writePending();
+                } catch (IOException ex) {
+                    failure = ex;
+                }
+                target = appended;
+                current = channel;
+                finished = new ArrayList<>(retired);
+                retired.clear();
+                flushRequested = false;
+            }
+            try {
+                for (FileChannel old : finished) {
+                    old.force(false);
+                    old.close();
+                }
+                current.force(false);
+            } catch (IOException ex) {
+                synchronized (this) {
+                    failure = ex;
+                }
+            }
+            synchronized (this) {
+                durable = Math.max(durable, target);
+                notifyAll();
+                if (closed && appended == durable) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void waitQuietly(long millis) {
+        try {
+            wait(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits until every record appended so far is synced to disk.
+     *
+     * @throws IOException if the journal could not be written.
+     */
+    public synchronized void flush() throws IOException {
+        long target = appended;
+        flushRequested = true;
+        notifyAll();
+        while (durable < target && failure == null && flusher.isAlive()) {
+            waitQuietly(0);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Gets the number of the segment records are appended to.
+     *
+     * @return The segment number.
+     */
+    public synchronized long getSegment() {
+        return segment;
+    }
+
+    /**
+     * Gets the number of records appended since the journal was opened.
+     *
+     * @return The number of records.
+     */
+    public synchronized long getAppended() {
+        return appended;
+    }
+
+    /**
+     * Syncs every record, detaches the journal from its inventory and closes its files.
+     *
+     * @throws IOException if the journal could not be written.
+     */
+    @Override
+    public void close() throws IOException {
+        inventory.setJournal(null);
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            notifyAll();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        compactor.shutdown();
+        try {
+            compactor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            channel.close();
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+import java.util.List;
+
+/**
+ * The InventoryListener interface receives the changes made to an {@link Inventory},
+ * one event per change, so views can update only what changed instead of reloading
+ * every creature.
+ *
+ * <p>Listeners are called after the inventory is unlocked, in the order the changes
+ * were made, by one thread at a time: the thread that made the change, or a thread
+ * still calling the listeners with earlier changes. A listener may call the
+ * inventory, and even change it; those changes reach the listeners once it returns.
+ * Listeners should return quickly; a Swing view hands the change over to the event
+ * dispatch thread, as {@link InventoryComboBoxModel} does.
+ */
+public interface InventoryListener {
+
+    /**
+     * Called when a creature is added to the inventory.
+     *
+     * @param creature The added creature.
+     */
+    default void creatureAdded(Creature creature) {
+    }
+
+    /**
+     * Called when a creature is removed from the inventory.
+     *
+     * @param creature The removed creature.
+     */
+    default void creatureRemoved(Creature creature) {
+    }
+
+    /**
+     * Called when creatures evolve: the consumed creatures have been removed and the
+     * evolved creatures added, after all creatures already in the inventory.
+     *
+     * @param consumed The creatures that evolved and left the inventory.
+     * @param evolved  The creatures they evolved into, in the order they were added.
+     */
+    default void creaturesEvolved(List<Creature> consumed, List<Creature> evolved) {
+    }
+
+    /**
+     * Called when the active creature changes.
+     *
+     * @param previous The previous active creature, or null.
+     * @param active   The new active creature, or null.
+     */
+    default void activeCreatureChanged(Creature previous, Creature active) {
+    }
+
+    /**
+     * Called when every creature of the inventory is replaced, such as when a game is
+     * loaded, and when the listener is added, to give it the current creatures.
+     *
+     * @param creatures The creatures of the inventory, in order.
+     * @param active    The active creature, or null.
+     */
+    default void creaturesReplaced(List<Creature> creatures, Creature active) {
+    }
+}
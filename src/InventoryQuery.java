@@ -0,0 +1,232 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The InventoryQuery class describes which creatures of an {@link Inventory} to find:
+ * by type, family, evolution level, health range and the start of the name, oldest
+ * or newest first. Every filter that is not set matches all creatures. Queries are
+ * immutable and made with {@link #builder()}; they are run with
+ * {@link Inventory#query(InventoryQuery, long, int)}.
+ *
+ * <p>All filters except health depend only on the species, so building a query works
+ * out the catalog species it can match once, using the catalog's name trie for the
+ * prefix. The inventory then only reads the creatures of those species. Health is
+ * checked creature by creature as the species' creatures are read: a creature's
+ * health can be set without going through the inventory, so it cannot be indexed.
+ *
+ */
+public final class InventoryQuery {
+    private final CreatureType type;//The type to match, or null.
+    private final String family;//The family to match, or null.
+    private final int level;//The evolution level to match, or 0.
+    private final int minHealth;//The lowest health to match.
+    private final int maxHealth;//The highest health to match.
+    private final String namePrefix;//The lower-case start of the name to match, or null.
+    private final int[] speciesIds;//The IDs of the catalog species that match, in ascending order.
+    private final Order order;//The order of the creatures found.
+
+    private InventoryQuery(Builder builder) {
+        this.type = builder.type;
+        this.family = builder.family;
+        this.level = builder.level;
+        this.minHealth = builder.minHealth;
+        this.maxHealth = builder.maxHealth;
+        this.namePrefix = builder.namePrefix == null ? null : builder.namePrefix.toLowerCase(Locale.ROOT);
+        this.order = builder.order;
+
+        SpeciesCatalog catalog = SpeciesCatalog.getDefault();
+        List<Species> candidates = new ArrayList<>();
+        if (namePrefix != null) {
+            candidates = catalog.findByNamePrefix(namePrefix);
+        } else {
+            for (int id = 0; id < catalog.size(); id++) {
+                candidates.add(catalog.get(id));
+            }
+        }
+        List<Integer> matching = new ArrayList<>();
+        for (Species species : candidates) {
+            if (matchesSpecies(species)) {
+                matching.add(species.getId());
+            }
+        }
+        this.speciesIds = matching.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Creates a builder for a new query.
+     *
+     * @return The builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Checks if a species passes the filters that depend only on the species.
+     *
+     * @param species The species.
+     * @return true if creatures of the species can match, false otherwise.
+     */
+    public boolean matchesSpecies(Species species) {
+        return (type == null || species.getType() == type)
+                && (family == null || species.getFamily().equals(family))
+                && (level == 0 || species.getEvolutionLevel() == level)
+                && (namePrefix == null || species.getName().toLowerCase(Locale.ROOT).startsWith(namePrefix));
+    }
+
+    /**
+     * Checks if a creature passes the health filter.
+     *
+     * @param creature The creature.
+     * @return true if the creature's health is in range, false otherwise.
+     */
+    public boolean matchesHealth(Creature creature) {
+        int health = creature.getHealth();
+        return health >= minHealth && health <= maxHealth;
+    }
+
+    /**
+     * Checks if a creature passes every filter.
+     *
+     * @param creature The creature.
+     * @return true if the creature matches, false otherwise.
+     */
+    public boolean matches(Creature creature) {
+        return matchesSpecies(creature.getSpecies()) && matchesHealth(creature);
+    }
+
+    /**
+     * Checks if the query filters by health.
+     *
+     * @return true if a health range is set, false otherwise.
+     */
+    public boolean hasHealthFilter() {
+        return minHealth != Integer.MIN_VALUE || maxHealth != Integer.MAX_VALUE;
+    }
+
+    /**
+     * Gets the order of the creatures found.
+     *
+     * @return The order.
+     */
+    public Order getOrder() {
+        return order;
+    }
+
+    /**
+     * Gets the IDs of the catalog species the query can match.
+     *
+     * @return The species IDs, in ascending order. The array must not be changed.
+     */
+    int[] getSpeciesIds() {
+        return speciesIds;
+    }
+
+    /**
+     * The Builder class collects the filters of a query.
+     */
+    public static class Builder {
+        private CreatureType type;
+        private String family;
+        private int level;
+        private int minHealth = Integer.MIN_VALUE;
+        private int maxHealth = Integer.MAX_VALUE;
+        private String namePrefix;
+        private Order order = Order.OLDEST_FIRST;
+
+        /**
+         * Only matches creatures of a type.
+         *
+         * @param type The type.
+         * @return This builder.
+         */
+        public Builder type(CreatureType type) {
+            this.type = type;
+            return this;
+        }
+
+        /**
+         * Only matches creatures of a family.
+         *
+         * @param family The name of the family.
+         * @return This builder.
+         */
+        public Builder family(String family) {
+            this.family = family;
+            return this;
+        }
+
+        /**
+         * Only matches creatures at an evolution level.
+         *
+         * @param level The evolution level; must be positive.
+         * @return This builder.
+         * @throws IllegalArgumentException if the level is not positive.
+         */
+        public Builder level(int level) {
+            if (level < 1) {
+                throw new IllegalArgumentException("Evolution level must be positive: " + level);
+            }
+            this.level = level;
+            return this;
+        }
+
+        /**
+         * Only matches creatures whose current health is in a range.
+         *
+         * @param min The lowest health, inclusive.
+         * @param max The highest health, inclusive.
+         * @return This builder.
+         * @throws IllegalArgumentException if min is greater than max.
+         */
+        public Builder health(int min, int max) {
+            if (min > max) {
+                throw new IllegalArgumentException("Empty health range: " + min + " to " + max);
+            }
+            this.minHealth = min;
+            this.maxHealth = max;
+            return this;
+        }
+
+        /**
+         * Only matches creatures whose name starts with a prefix, ignoring case.
+         *
+         * @param prefix The start of the name.
+         * @return This builder.
+         */
+        public Builder namePrefix(String prefix) {
+            this.namePrefix = prefix;
+            return this;
+        }
+
+        /**
+         * Sets the order of the creatures found. Creatures are oldest first by default.
+         *
+         * @param order The order.
+         * @return This builder.
+         */
+        public Builder order(Order order) {
+            this.order = order;
+            return this;
+        }
+
+        /**
+         * Builds the query.
+         *
+         * @return The query.
+         */
+        public InventoryQuery build() {
+            return new InventoryQuery(this);
+        }
+    }
+
+    /**
+     * The Order enum lists the orders a query can return creatures in. Creature IDs
+     * grow as creatures are made, so ID order is the order they were obtained in.
+     */
+    public enum Order {
+        OLDEST_FIRST, // Ascending order of creature ID.
+        NEWEST_FIRST; // Descending order of creature ID.
+    }
+}
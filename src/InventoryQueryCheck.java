@@ -0,0 +1,92 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+/**
+ * The InventoryQueryCheck class checks that paging through a query with
+ * {@link Inventory#query(InventoryQuery, long, int)} finds exactly the creatures a
+ * filter and sort of the whole inventory finds, in the same order, and that
+ * {@link Inventory#count(InventoryQuery)} agrees, before and after the inventory
+ * changes.
+ *
+ */
+public class InventoryQueryCheck {
+
+    /**
+     * Runs the checks.
+     *
+     * @throws AssertionError if a check fails.
+     */
+    public static void run() {
+        int count = 20_000;
+        Creature[] creatures = Fixtures.randomCreatures(count, 42);
+        SplittableRandom random = new SplittableRandom(42);
+        for (Creature creature : creatures) {
+            creature.setHealth(random.nextInt(101));
+        }
+        Inventory inventory = Fixtures.fill(new Inventory(), creatures);
+        Map<String, InventoryQuery> queries = queries();
+        checkAll(inventory, queries, "");
+
+        for (int i = 0; i < count; i += 3) {
+            inventory.removeCreature(creatures[i]);
+        }
+        for (int i = 1; i < count; i += 7) {
+            inventory.setCreatureHealth(creatures[i], random.nextInt(101));
+        }
+        for (Creature creature : Fixtures.randomCreatures(count / 10, 7)) {
+            inventory.addCreature(creature);
+        }
+        checkAll(inventory, queries, " after changes");
+    }
+
+    private static Map<String, InventoryQuery> queries() {
+        Map<String, InventoryQuery> queries = new LinkedHashMap<>();
+        queries.put("everything", InventoryQuery.builder().build());
+        queries.put("type", InventoryQuery.builder().type(CreatureType.WATER).build());
+        queries.put("family and level", InventoryQuery.builder().family(Species.byId(0).getFamily()).level(1).build());
+        queries.put("type and health", InventoryQuery.builder().type(CreatureType.FIRE).health(40, 45).build());
+        queries.put("name prefix", InventoryQuery.builder().namePrefix(Species.byId(3).getName().substring(0, 2)).build());
+        queries.put("type, newest", InventoryQuery.builder().type(CreatureType.WATER).order(InventoryQuery.Order.NEWEST_FIRST).build());
+        queries.put("health", InventoryQuery.builder().health(40, 45).build());
+        queries.put("rare health", InventoryQuery.builder().health(100, 100).build());
+        queries.put("no match", InventoryQuery.builder().namePrefix("#").build());
+        return queries;
+    }
+
+    private static void checkAll(Inventory inventory, Map<String, InventoryQuery> queries, String when) {
+        for (Map.Entry<String, InventoryQuery> entry : queries.entrySet()) {
+            InventoryQuery query = entry.getValue();
+            String what = entry.getKey() + when;
+            List<Creature> expected = filterAndSort(inventory, query);
+            Checks.requireEqual(expected.size(), inventory.count(query), what + ": count");
+            for (int limit : new int[]{1, 50, expected.size() + 1}) {
+                Checks.requireEqual(expected, pageThrough(inventory, query, limit), what + ": pages of " + limit);
+            }
+        }
+    }
+
+    private static List<Creature> pageThrough(Inventory inventory, InventoryQuery query, int limit) {
+        List<Creature> found = new ArrayList<>();
+        Inventory.Page page = inventory.query(query, limit);
+        found.addAll(page.getCreatures());
+        while (page.hasMore()) {
+            Checks.require(page.getCreatures().size() == limit, "short page before the last one");
+            page = inventory.query(query, page.getLastId(), limit);
+            found.addAll(page.getCreatures());
+        }
+        return found;
+    }
+
+    private static List<Creature> filterAndSort(Inventory inventory, InventoryQuery query) {
+        Comparator<Creature> byId = Comparator.comparingLong(Creature::getId);
+        return inventory.getCreatures().stream()
+                .filter(query::matches)
+                .sorted(query.getOrder() == InventoryQuery.Order.NEWEST_FIRST ? byId.reversed() : byId)
+                .collect(Collectors.toList());
+    }
+}
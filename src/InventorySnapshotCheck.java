@@ -0,0 +1,61 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The InventorySnapshotCheck class checks the snapshots returned by
+ * {@link Inventory#getCreatures()}: an unchanged inventory hands out the same
+ * snapshot, a change makes a new one, and a snapshot never changes or accepts changes
+ * after it is returned.
+ *
+ */
+public class InventorySnapshotCheck {
+
+    /**
+     * Runs the checks.
+     *
+     * @throws AssertionError if a check fails.
+     */
+    public static void run() {
+        for (boolean concurrent : new boolean[]{false, true}) {
+            check(new Inventory(concurrent));
+        }
+    }
+
+    private static void check(Inventory inventory) {
+        String mode = inventory.isConcurrent() ? "concurrent: " : "plain: ";
+        Checks.require(inventory.getCreatures().isEmpty(), mode + "snapshot of an empty inventory");
+        Creature[] creatures = Fixtures.cyclingCreatures(100);
+        Fixtures.fill(inventory, creatures);
+
+        List<Creature> first = inventory.getCreatures();
+        Checks.requireEqual(Arrays.asList(creatures), first, mode + "snapshot after adding");
+        Checks.require(inventory.getCreatures() == first, mode + "unchanged inventory made a new snapshot");
+        inventory.setCreatureHealth(creatures[0], 1);
+        Checks.require(inventory.getCreatures() == first, mode + "health change made a new snapshot");
+
+        Creature extra = new Creature(Species.byId(0));
+        inventory.addCreature(extra);
+        List<Creature> added = inventory.getCreatures();
+        Checks.require(added != first, mode + "adding a creature kept the old snapshot");
+        Checks.requireEqual(creatures.length, first.size(), mode + "size of the old snapshot after adding");
+        Checks.requireEqual(extra, added.get(added.size() - 1), mode + "last creature after adding");
+
+        inventory.removeCreature(extra);
+        List<Creature> removed = inventory.getCreatures();
+        Checks.require(removed != added, mode + "removing a creature kept the old snapshot");
+        Checks.requireEqual(creatures.length + 1, added.size(), mode + "size of the old snapshot after removing");
+        Checks.requireEqual(first, removed, mode + "snapshot after adding and removing a creature");
+
+        List<Creature> before = new ArrayList<>(removed);
+        Checks.require(inventory.evolveCreature(creatures[0], inventory.findEvolutionPartner(creatures[0])),
+                mode + "evolution of the first creature failed");
+        Checks.requireEqual(before, removed, mode + "old snapshot after an evolution");
+        try {
+            removed.add(extra);
+            throw new AssertionError(mode + "snapshot accepted a new creature");
+        } catch (UnsupportedOperationException expected) {
+            // Snapshots are read-only.
+        }
+    }
+}
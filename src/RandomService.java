@@ -0,0 +1,99 @@
+import java.util.SplittableRandom;
+
+/**
+ * The RandomService class is the single source of randomness in the game. All random
+ * streams are derived from one root seed, so seeding the service makes a run
+ * reproducible. Each thread gets its own {@link SplittableRandom}, so threads never
+ * share or contend on a random number generator.
+ *
+ */
+public final class RandomService {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;//The odd constant used to spread stream indexes apart.
+
+    private static long seed = new SplittableRandom().nextLong();//The root seed of the current run.
+    private static SplittableRandom root = new SplittableRandom(seed);//The generator the per-thread streams are split from.
+    private static volatile int generation = 0;//Incremented on every reseed so threads drop their old streams.
+
+    private static final ThreadLocal<ThreadStream> CURRENT = new ThreadLocal<>();//The stream of each thread.
+
+    private RandomService() {
+    }
+
+    /**
+     * Restarts all randomness from the given seed. Threads pick up a new stream on
+     * their next call to {@link #current()}; streams already handed out keep their state.
+     *
+     * @param newSeed The root seed of the run.
+     */
+    public static synchronized void setSeed(long newSeed) {
+        seed = newSeed;
+        root = new SplittableRandom(newSeed);
+        generation++;
+    }
+
+    /**
+     * Gets the root seed of the current run.
+     *
+     * @return The root seed.
+     */
+    public static synchronized long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets the random stream of the calling thread, splitting a new one from the root
+     * the first time a thread asks or after the service was reseeded. The returned
+     * generator must not be shared with other threads.
+     *
+     * @return The random stream of the calling thread.
+     */
+    public static SplittableRandom current() {
+        ThreadStream stream = CURRENT.get();
+        if (stream == null || stream.generation != generation) {
+            stream = split();
+            CURRENT.set(stream);
+        }
+        return stream.random;
+    }
+
+    /**
+     * Creates the random stream with the given index. The stream depends only on the
+     * root seed and the index, so parallel tasks that number their work get the same
+     * results no matter which thread runs them or in which order.
+     *
+     * @param index The index of the stream.
+     * @return A new random stream.
+     */
+    public static SplittableRandom stream(long index) {
+        return new SplittableRandom(mix(getSeed() + (index + 1) * GOLDEN_GAMMA));
+    }
+
+    private static synchronized ThreadStream split() {
+        return new ThreadStream(root.split(), generation);
+    }
+
+    /**
+     * Scrambles a value so that neighbouring inputs give unrelated outputs.
+     *
+     * @param z The value to scramble.
+     * @return The scrambled value.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * A random stream owned by one thread, with the generation it was split in.
+     */
+    private static final class ThreadStream {
+        private final SplittableRandom random;
+        private final int generation;
+
+        ThreadStream(SplittableRandom random, int generation) {
+            this.random = random;
+            this.generation = generation;
+        }
+    }
+}
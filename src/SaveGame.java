@@ -0,0 +1,268 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * The SaveGame class stores the state of a game in a compact binary file: every
+ * creature of the inventory, the active creature and the creature ID counter.
+ *
+ * <p>The file starts with a {@value #HEADER_SIZE}-byte little-endian header: magic
+ * number (int), format version (short), reserved (short), next creature ID (long),
+ * ID of the active creature or -1 (long), number of creatures (int) and the
+ * {@linkplain SpeciesCatalog#getFingerprint() fingerprint} of the species catalog (int).
+ * Records refer to species by catalog ID, so a save is only opened with the catalog
+ * it was written with.
+ * It is followed by one {@value #RECORD_SIZE}-byte record per creature, in inventory
+ * order: creature ID (long), species ID (int) and health (int).
+ *
+ * <p>Saves are streamed through a small buffer into a temporary file that replaces
+ * the save only once it is complete. Loading reads the whole file into memory and
+ * closes it at once, so the save can be replaced while it is in use, and creates each
+ * {@link Creature} only when it is first accessed.
+ *
+ */
+public class SaveGame {
+    public static final int MAGIC = 0x50534156;//The first bytes of a save file, "VASP" in little-endian order.
+    public static final short FORMAT_VERSION = 2;//The version of the file format written by this class.
+    public static final int HEADER_SIZE = 32;//The size of the header in bytes.
+    public static final int RECORD_SIZE = 16;//The size of one creature record in bytes.
+    private static final int RECORDS_PER_BATCH = 4096;//The number of records buffered before they are written.
+
+    private final ByteBuffer buffer;//The contents of the save file.
+    private final long nextId;//The creature ID counter when the game was saved.
+    private final long activeId;//The ID of the active creature, or -1.
+    private final int count;//The number of creatures in the save.
+    private final Creature[] creatures;//The creatures created so far, by record index.
+
+    private SaveGame(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a save file");
+        }
+        short version = buffer.getShort(4);
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported save format version " + version);
+        }
+        this.nextId = buffer.getLong(8);
+        this.activeId = buffer.getLong(16);
+        this.count = buffer.getInt(24);
+        SpeciesCatalog catalog = SpeciesCatalog.getDefault();
+        if (buffer.getInt(28) != catalog.getFingerprint()) {
+            throw new IOException("Save file was written with a different species catalog");
+        }
+        if (count < 0 || buffer.capacity() != HEADER_SIZE + (long) count * RECORD_SIZE) {
+            throw new IOException("Save file holds " + buffer.capacity() + " bytes, not the header and " + count + " creatures");
+        }
+        for (int i = 0; i < count; i++) {
+            int offset = HEADER_SIZE + i * RECORD_SIZE;
+            int speciesId = buffer.getInt(offset + 8);
+            if (speciesId < 0 || speciesId >= catalog.size()) {
+                throw new IOException("Creature " + i + " of the save has unknown species ID " + speciesId);
+            }
+            int health = buffer.getInt(offset + 12);
+            if (health < 0 || health > catalog.get(speciesId).getMaxHealth()) {
+                throw new IOException("Creature " + i + " of the save has invalid health " + health);
+            }
+        }
+        this.creatures = new Creature[count];
+    }
+
+    /**
+     * Saves the creatures and active creature of an inventory, with the creature ID counter.
+     *
+     * @param path      The path of the save file; an existing file is replaced.
+     * @param inventory The inventory to save.
+     * @throws IOException if the file cannot be written.
+     * @throws IllegalArgumentException if a creature's species is not in the catalog.
+     */
+    public static void write(Path path, Inventory inventory) throws IOException {
+        write(path, inventory.getCreatures(), inventory.getActiveCreature());
+    }
+
+    /**
+     * Saves a list of creatures and the active creature, with the creature ID counter.
+     *
+     * @param path      The path of the save file; an existing file is replaced.
+     * @param creatures The creatures to save, in order.
+     * @param active    The active creature, or null.
+     * @throws IOException if the file cannot be written.
+     * @throws IllegalArgumentException if a creature's species is not in the catalog.
+     */
+    public static void write(Path path, List<Creature> creatures, Creature active) throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        ByteBuffer buffer = ByteBuffer.allocateDirect(RECORD_SIZE * RECORDS_PER_BATCH).order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            buffer.putInt(MAGIC)
+                    .putShort(FORMAT_VERSION)
+                    .putShort((short) 0)
+                    .putLong(Creature.peekNextId())
+                    .putLong(active == null ? -1 : active.getId())
+                    .putInt(creatures.size())
+                    .putInt(SpeciesCatalog.getDefault().getFingerprint());
+            for (Creature creature : creatures) {
+                if (buffer.remaining() < RECORD_SIZE) {
+                    writeFully(channel, buffer);
+                }
+                buffer.putLong(creature.getId())
+                        .putInt(speciesIdOf(creature))
+                        .putInt(creature.getHealth());
+            }
+            writeFully(channel, buffer);
+            channel.force(false);
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Gets the catalog ID of a creature's species, looking unregistered species up by name.
+     *
+     * @param creature The creature.
+     * @return The species ID.
+     * @throws IllegalArgumentException if the species is not in the catalog.
+     */
+    static int speciesIdOf(Creature creature) {
+        Species species = creature.getSpecies();
+        if (species.getId() == Species.UNREGISTERED) {
+            species = Species.byName(species.getName());
+            if (species == null) {
+                throw new IllegalArgumentException("Creature " + creature.getName() + " has no catalog species and cannot be saved");
+            }
+        }
+        return species.getId();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Opens a save file by reading it into memory. Every record is checked when the save
+     * is opened, but no creatures are created until they are accessed. Opening a save moves the creature ID counter past the saved counter,
+     * so new creatures never reuse a saved ID.
+     *
+     * @param path The path of the save file.
+     * @return The opened save.
+     * @throws IOException if the file cannot be read or is not a valid save.
+     */
+    public static SaveGame open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Save file is too large");
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("Save file is truncated");
+                }
+            }
+            SaveGame save = new SaveGame(buffer);
+            Creature.advanceNextId(save.nextId);
+            return save;
+        }
+    }
+
+    /**
+     * Gets the number of creatures in the save.
+     *
+     * @return The number of creatures.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Gets the creature ID counter when the game was saved.
+     *
+     * @return The next creature ID.
+     */
+    public long getNextId() {
+        return nextId;
+    }
+
+    /**
+     * Gets the ID of the active creature.
+     *
+     * @return The ID of the active creature, or -1 if there was none.
+     */
+    public long getActiveId() {
+        return activeId;
+    }
+
+    /**
+     * Gets a creature of the save, creating it on first access.
+     *
+     * @param index The index of the creature in the save.
+     * @return The creature.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public Creature getCreature(int index) {
+        Creature creature = creatures[index];
+        if (creature == null) {
+            int offset = HEADER_SIZE + index * RECORD_SIZE;
+            creature = Creature.restore(buffer.getLong(offset), Species.byId(buffer.getInt(offset + 8)), buffer.getInt(offset + 12));
+            creatures[index] = creature;
+        }
+        return creature;
+    }
+
+    /**
+     * Gets a read-only list view of the creatures of the save. Creatures are created as
+     * the list's elements are accessed.
+     *
+     * @return The creatures, in inventory order.
+     */
+    public List<Creature> getCreatures() {
+        return new AbstractList<Creature>() {
+            @Override
+            public Creature get(int index) {
+                return getCreature(index);
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+    }
+
+    /**
+     * Replaces the contents of an inventory with the creatures of the save.
+     *
+     * @param inventory The inventory to load into.
+     */
+    public void loadInto(Inventory inventory) {
+        Creature active = null;
+        for (int i = 0; i < count && active == null; i++) {
+            if (buffer.getLong(HEADER_SIZE + i * RECORD_SIZE) == activeId) {
+                active = getCreature(i);
+            }
+        }
+        inventory.replaceAll(getCreatures(), active);
+    }
+
+    /**
+     * Reads a save file into a new inventory.
+     *
+     * @param path The path of the save file.
+     * @return The loaded inventory.
+     * @throws IOException if the file cannot be read or is not a valid save.
+     */
+    public static Inventory load(Path path) throws IOException {
+        Inventory inventory = new Inventory();
+        open(path).loadInto(inventory);
+        return inventory;
+    }
+}
@@ -0,0 +1,185 @@
+/**
+ * The Species class holds the data shared by every creature of one species: its
+ * name, type, family, evolution level, icon path and maximum health. Species are
+ * immutable and each one exists only once, so creatures reference their species
+ * instead of carrying their own copy of the data.
+ *
+ * <p>The species of the game are loaded by the {@link SpeciesCatalog}; the static
+ * methods of this class look them up in the default catalog.
+ *
+ */
+public final class Species {
+    public static final int UNREGISTERED = -1;//The ID and family index of species that are not in the catalog.
+
+    private final int id;//The ID of the species, or UNREGISTERED.
+    private final String name;//The name of the species.
+    private final CreatureType type;//The type of the species.
+    private final long typeMask;//The bitmask of the species' type ordinals, with a second bit for a dual-typed species.
+    private final String family;//The family to which the species belongs.
+    private final int familyIndex;//The index of the family in the catalog, or UNREGISTERED.
+    private final int evolutionLevel;//The evolution level of the species.
+    private final String iconPath;//The file path to the icon representing the species.
+    private final int maxHealth;//The maximum health of creatures of the species.
+
+    Species(int id, String name, CreatureType type, long typeMask, String family, int familyIndex, int evolutionLevel, String iconPath, int maxHealth) {
+        this.id = id;
+        this.name = name;
+        this.type = type;
+        this.typeMask = typeMask;
+        this.family = family;
+        this.familyIndex = familyIndex;
+        this.evolutionLevel = evolutionLevel;
+        this.iconPath = iconPath;
+        this.maxHealth = maxHealth;
+    }
+
+    /**
+     * Gets a registered species by ID.
+     *
+     * @param id The ID of the species.
+     * @return The species.
+     * @throws ArrayIndexOutOfBoundsException if no species has the ID.
+     */
+    public static Species byId(int id) {
+        return SpeciesCatalog.getDefault().get(id);
+    }
+
+    /**
+     * Gets a registered species by name.
+     *
+     * @param name The name of the species.
+     * @return The species, or null if no registered species has the name.
+     */
+    public static Species byName(String name) {
+        return SpeciesCatalog.getDefault().byName(name);
+    }
+
+    /**
+     * Gets the registered species of a family at an evolution level.
+     *
+     * @param familyIndex The index of the family in the catalog.
+     * @param level       The evolution level.
+     * @return The species, or null if the family has no species at that level.
+     */
+    public static Species of(int familyIndex, int level) {
+        return SpeciesCatalog.getDefault().of(familyIndex, level);
+    }
+
+    /**
+     * Gets the number of registered species.
+     *
+     * @return The number of species.
+     */
+    public static int count() {
+        return SpeciesCatalog.getDefault().size();
+    }
+
+    /**
+     * Finds the species with the given data. The registered species is returned when
+     * one has the same name, type, family, evolution level and maximum health; its
+     * icon path is used. Otherwise a new unregistered species is created.
+     *
+     * @param name           The name of the species.
+     * @param type           The type of the species.
+     * @param family         The family to which the species belongs.
+     * @param evolutionLevel The evolution level of the species.
+     * @param iconPath       The file path to the icon representing the species.
+     * @param maxHealth      The maximum health of creatures of the species.
+     * @return The matching species.
+     */
+    public static Species intern(String name, CreatureType type, String family, int evolutionLevel, String iconPath, int maxHealth) {
+        Species registered = byName(name);
+        if (registered != null && registered.type == type && registered.family.equals(family)
+                && registered.evolutionLevel == evolutionLevel && registered.maxHealth == maxHealth) {
+            return registered;
+        }
+        return new Species(UNREGISTERED, name, type, TypeChart.typeMask(type), family, UNREGISTERED, evolutionLevel, iconPath, maxHealth);
+    }
+
+    /**
+     * Gets the ID of the species.
+     *
+     * @return The ID, or {@link #UNREGISTERED} if the species is not in the registry.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Gets the name of the species.
+     *
+     * @return The name of the species.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the type of the species.
+     *
+     * @return The type of the species.
+     */
+    public CreatureType getType() {
+        return type;
+    }
+
+    /**
+     * Gets the types of the species as a bitmask of type ordinals, for
+     * {@link TypeChart#getMultiplierForMask(int, long)}.
+     *
+     * @return The bitmask, with one bit set, or two for a dual-typed species.
+     */
+    public long getTypeMask() {
+        return typeMask;
+    }
+
+    /**
+     * Gets the family to which the species belongs.
+     *
+     * @return The family of the species.
+     */
+    public String getFamily() {
+        return family;
+    }
+
+    /**
+     * Gets the index of the species' family in the catalog.
+     *
+     * @return The family index, or {@link #UNREGISTERED} if the species is not in the catalog.
+     */
+    public int getFamilyIndex() {
+        return familyIndex;
+    }
+
+    /**
+     * Gets the evolution level of the species.
+     *
+     * @return The evolution level of the species.
+     */
+    public int getEvolutionLevel() {
+        return evolutionLevel;
+    }
+
+    /**
+     * Gets the file path to the icon representing the species.
+     *
+     * @return The icon path of the species.
+     */
+    public String getIconPath() {
+        return iconPath;
+    }
+
+    /**
+     * Gets the maximum health of creatures of the species.
+     *
+     * @return The maximum health.
+     */
+    public int getMaxHealth() {
+        return maxHealth;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
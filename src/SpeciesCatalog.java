@@ -0,0 +1,340 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * The SpeciesCatalog class holds every species of the game, loaded from the species
+ * catalog file. Species are stored in a dense array indexed by species ID, which is
+ * the line order of the file, and can be found by name or by family and evolution
+ * level in constant time.
+ *
+ * <p>Each non-empty line of the catalog that is not a comment (starting with '#')
+ * holds a name, type, family, evolution level, icon path and maximum health,
+ * separated by commas. A dual-typed species names two types separated by '/', the
+ * first being its main type, as in "FIRE/WATER". An optional seventh field names the species it evolves from;
+ * without it a species evolves from its family's species one level lower. Naming
+ * the species evolved from allows branches: several species of a family at the same
+ * level, of which the first in the file is the one {@link #of(int, int)} returns.
+ *
+ * <p>Species can also be found by the start of their name through a trie of the
+ * lower-case names, built with the catalog.
+ *
+ */
+public final class SpeciesCatalog {
+    private static final String DEFAULT_CATALOG_PATH = "/species.csv";//The resource holding the game's species.
+    private static final int FIELDS = 6;//The number of required fields on a catalog line.
+    private static final int MAX_FIELDS = FIELDS + 1;//The number of fields on a line that names the species evolved from.
+
+    private static final SpeciesCatalog DEFAULT = loadDefault();//The catalog used by the game.
+
+    private final Species[] species;//The species, by ID.
+    private final String[] familyNames;//The family names, by family index.
+    private final int maxLevel;//The highest evolution level in the catalog.
+    private final int[] byFamilyLevel;//The first species IDs, by family index * maxLevel + level - 1, or -1.
+    private final int[] parents;//The ID of the species each species evolves from, or -1.
+    private final Map<String, Integer> idsByName;//The species IDs, by name.
+    private final Map<String, Integer> familyIndexes;//The family indexes, by family name.
+    private final NameTrie names = new NameTrie();//The species IDs, by lower-case name.
+    private final int fingerprint;//A checksum of the species names, families and levels, in ID order.
+
+    private SpeciesCatalog(List<String[]> rows) {
+        this.species = new Species[rows.size()];
+        this.idsByName = new HashMap<>(rows.size() * 2);
+        this.familyIndexes = new HashMap<>();
+        List<String> families = new ArrayList<>();
+        int highestLevel = 1;
+        for (String[] row : rows) {
+            if (familyIndexes.putIfAbsent(row[2], families.size()) == null) {
+                families.add(row[2]);
+            }
+            highestLevel = Math.max(highestLevel, Integer.parseInt(row[3]));
+        }
+        this.familyNames = families.toArray(new String[0]);
+        this.maxLevel = highestLevel;
+        this.byFamilyLevel = new int[familyNames.length * maxLevel];
+        Arrays.fill(byFamilyLevel, -1);
+        this.parents = new int[species.length];
+
+        for (int id = 0; id < species.length; id++) {
+            String[] row = rows.get(id);
+            int familyIndex = familyIndexes.get(row[2]);
+            int level = Integer.parseInt(row[3]);
+            if (level < 1) {
+                throw new IllegalArgumentException("Species " + row[0] + ": evolution level must be at least 1");
+            }
+            CreatureType[] types = parseTypes(row[0], row[1]);
+            species[id] = new Species(id, row[0], types[0], TypeChart.typeMask(types), familyNames[familyIndex], familyIndex,
+                    level, row[4], Integer.parseInt(row[5]));
+            if (idsByName.putIfAbsent(row[0], id) != null) {
+                throw new IllegalArgumentException("Duplicate species name: " + row[0]);
+            }
+            int slot = familyIndex * maxLevel + level - 1;
+            if (byFamilyLevel[slot] == -1) {
+                byFamilyLevel[slot] = id;
+            } else if (row.length < MAX_FIELDS) {
+                throw new IllegalArgumentException("Duplicate species for " + row[2] + " at level " + level);
+            }
+            names.add(row[0].toLowerCase(Locale.ROOT), id);
+        }
+        for (int id = 0; id < species.length; id++) {
+            parents[id] = findParent(id, rows.get(id));
+        }
+        CRC32 checksum = new CRC32();
+        for (Species s : species) {
+            checksum.update((s.getName() + ',' + s.getFamily() + ',' + s.getEvolutionLevel() + '\n').getBytes(StandardCharsets.UTF_8));
+        }
+        this.fingerprint = (int) checksum.getValue();
+    }
+
+    private static CreatureType[] parseTypes(String name, String field) {
+        String[] names = field.split("/");
+        if (names.length > 2) {
+            throw new IllegalArgumentException("Species " + name + " has more than two types: " + field);
+        }
+        CreatureType[] types = new CreatureType[names.length];
+        for (int i = 0; i < names.length; i++) {
+            types[i] = CreatureType.valueOf(names[i].trim());
+        }
+        if (types.length == 2 && types[0] == types[1]) {
+            throw new IllegalArgumentException("Species " + name + " names the same type twice: " + field);
+        }
+        return types;
+    }
+
+    private int findParent(int id, String[] row) {
+        Species child = species[id];
+        if (row.length < MAX_FIELDS) {
+            Species parent = of(child.getFamilyIndex(), child.getEvolutionLevel() - 1);
+            return parent == null ? -1 : parent.getId();
+        }
+        Integer parentId = idsByName.get(row[FIELDS]);
+        if (parentId == null) {
+            throw new IllegalArgumentException("Species " + row[0] + " evolves from unknown species " + row[FIELDS]);
+        }
+        Species parent = species[parentId];
+        if (parent.getFamilyIndex() != child.getFamilyIndex() || parent.getEvolutionLevel() != child.getEvolutionLevel() - 1) {
+            throw new IllegalArgumentException("Species " + row[0] + " must evolve from its family one level lower, not " + row[FIELDS]);
+        }
+        return parentId;
+    }
+
+    /**
+     * Gets the catalog used by the game, loaded from the species catalog resource.
+     *
+     * @return The default catalog.
+     */
+    public static SpeciesCatalog getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Parses a species catalog.
+     *
+     * @param reader The reader to parse the catalog from.
+     * @return The parsed catalog.
+     * @throws IOException if the catalog cannot be read.
+     * @throws IllegalArgumentException if a line is malformed or a species is defined twice.
+     */
+    public static SpeciesCatalog parse(Reader reader) throws IOException {
+        BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        List<String[]> rows = new ArrayList<>();
+        String line;
+        int lineNumber = 0;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split(",");
+            if (fields.length != FIELDS && fields.length != MAX_FIELDS) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": expected " + FIELDS + " or " + MAX_FIELDS + " fields");
+            }
+            for (int i = 0; i < fields.length; i++) {
+                fields[i] = fields[i].trim();
+            }
+            rows.add(fields);
+        }
+        return new SpeciesCatalog(rows);
+    }
+
+    private static SpeciesCatalog loadDefault() {
+        try (InputStream is = SpeciesCatalog.class.getResourceAsStream(DEFAULT_CATALOG_PATH)) {
+            if (is == null) {
+                throw new IllegalStateException("Resource not found: " + DEFAULT_CATALOG_PATH);
+            }
+            return parse(new InputStreamReader(is, StandardCharsets.UTF_8));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Gets the number of species in the catalog.
+     *
+     * @return The number of species.
+     */
+    public int size() {
+        return species.length;
+    }
+
+    /**
+     * Gets a checksum of the species names, families and evolution levels, in ID order.
+     * Two catalogs with the same fingerprint give every species ID the same meaning.
+     *
+     * @return The fingerprint.
+     */
+    public int getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Gets a species by ID.
+     *
+     * @param id The ID of the species.
+     * @return The species.
+     * @throws ArrayIndexOutOfBoundsException if no species has the ID.
+     */
+    public Species get(int id) {
+        return species[id];
+    }
+
+    /**
+     * Gets a species by name.
+     *
+     * @param name The name of the species.
+     * @return The species, or null if no species has the name.
+     */
+    public Species byName(String name) {
+        Integer id = idsByName.get(name);
+        return id == null ? null : species[id];
+    }
+
+    /**
+     * Finds the species whose names start with a prefix, ignoring case.
+     *
+     * @param prefix The start of the name.
+     * @return The matching species in ID order; every species if the prefix is empty.
+     */
+    public List<Species> findByNamePrefix(String prefix) {
+        NameTrie node = names.find(prefix.toLowerCase(Locale.ROOT));
+        List<Species> found = new ArrayList<>();
+        if (node != null) {
+            for (int i = 0; i < node.count; i++) {
+                found.add(species[node.ids[i]]);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Gets the species another species evolves from.
+     *
+     * @param id The ID of the species.
+     * @return The ID of the species it evolves from, or -1 if it does not evolve from another species.
+     */
+    public int getParentId(int id) {
+        return parents[id];
+    }
+
+    /**
+     * Gets the species of a family at an evolution level. If the family branches at
+     * that level, the first species of the branches is returned.
+     *
+     * @param familyIndex The index of the family.
+     * @param level       The evolution level.
+     * @return The species, or null if the family has no species at that level.
+     */
+    public Species of(int familyIndex, int level) {
+        if (familyIndex < 0 || familyIndex >= familyNames.length || level < 1 || level > maxLevel) {
+            return null;
+        }
+        int id = byFamilyLevel[familyIndex * maxLevel + level - 1];
+        return id == -1 ? null : species[id];
+    }
+
+    /**
+     * Gets the species of a family at an evolution level.
+     *
+     * @param family The name of the family.
+     * @param level  The evolution level.
+     * @return The species, or null if the family has no species at that level.
+     */
+    public Species of(String family, int level) {
+        Integer familyIndex = familyIndexes.get(family);
+        return familyIndex == null ? null : of(familyIndex, level);
+    }
+
+    /**
+     * Gets the number of families in the catalog.
+     *
+     * @return The number of families.
+     */
+    public int getFamilyCount() {
+        return familyNames.length;
+    }
+
+    /**
+     * Gets the name of a family.
+     *
+     * @param familyIndex The index of the family.
+     * @return The name of the family.
+     */
+    public String getFamilyName(int familyIndex) {
+        return familyNames[familyIndex];
+    }
+
+    /**
+     * Gets the highest evolution level of any species in the catalog.
+     *
+     * @return The highest evolution level.
+     */
+    public int getMaxLevel() {
+        return maxLevel;
+    }
+
+    /**
+     * A node of the name trie. Each node lists the IDs of every species whose name
+     * starts with the node's prefix, so a prefix search stops at the prefix's node.
+     */
+    private static class NameTrie {
+        private final Map<Character, NameTrie> children = new HashMap<>();
+        private int[] ids = new int[1];//The IDs of the species below this node, in ascending order.
+        private int count;//The number of IDs.
+
+        void add(String name, int id) {
+            NameTrie node = this;
+            node.addId(id);
+            for (int i = 0; i < name.length(); i++) {
+                node = node.children.computeIfAbsent(name.charAt(i), c -> new NameTrie());
+                node.addId(id);
+            }
+        }
+
+        private void addId(int id) {
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count * 2);
+            }
+            ids[count++] = id;
+        }
+
+        NameTrie find(String prefix) {
+            NameTrie node = this;
+            for (int i = 0; i < prefix.length() && node != null; i++) {
+                node = node.children.get(prefix.charAt(i));
+            }
+            return node;
+        }
+    }
+}
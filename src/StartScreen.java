@@ -74,8 +74,12 @@ public class StartScreen extends JFrame {
      /**
      * The main method to launch the game's start screen.
      *
+     * @param args An optional seed for the {@link RandomService}, to replay the same encounters and battles.
      */
     public static void main(String[] args) {
+        if (args.length > 0) {
+            RandomService.setSeed(Long.parseLong(args[0]));
+        }
         SwingUtilities.invokeLater(() -> {
             Game gameInstance = new Game();
             StartScreen startScreen = new StartScreen(gameInstance);
@@ -0,0 +1,182 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The TypeChart class holds the damage multiplier of every attacking type against
+ * every defending type. Multipliers are whole percentages (150 means 1.5x damage)
+ * stored in a flat array indexed by type ordinal, so a lookup costs the same no
+ * matter how many types exist. Dual-typed defenders are given as a bitmask of
+ * type ordinals (up to 64 types), and their multipliers are combined.
+ *
+ */
+public final class TypeChart {
+    public static final int NEUTRAL = 100;//The multiplier of a matchup without any advantage.
+    private static final String DEFAULT_CHART_PATH = "/type_chart.txt";//The resource holding the chart of CreatureType.
+
+    private static final TypeChart DEFAULT = loadDefault();//The chart used by battles.
+
+    private final int typeCount;//The number of types in the chart.
+    private final int[] multipliers;//The multipliers, indexed by attacker * typeCount + defender.
+
+    private TypeChart(int typeCount, int[] multipliers) {
+        this.typeCount = typeCount;
+        this.multipliers = multipliers;
+    }
+
+    /**
+     * Gets the chart of the {@link CreatureType} values, loaded from the type chart resource.
+     *
+     * @return The default type chart.
+     */
+    public static TypeChart getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Parses a type chart. Each non-empty line that is not a comment (starting with '#')
+     * holds an attacking type, a defending type and a multiplier in percent, separated
+     * by whitespace. Pairs not listed are neutral.
+     *
+     * @param reader    The reader to parse the chart from.
+     * @param typeNames The names of the types, in ordinal order.
+     * @return The parsed type chart.
+     * @throws IOException if the chart cannot be read.
+     * @throws IllegalArgumentException if a line is malformed or names an unknown type.
+     */
+    public static TypeChart parse(Reader reader, List<String> typeNames) throws IOException {
+        Map<String, Integer> ordinals = new HashMap<>();
+        for (int i = 0; i < typeNames.size(); i++) {
+            ordinals.put(typeNames.get(i), i);
+        }
+        int typeCount = typeNames.size();
+        int[] multipliers = new int[typeCount * typeCount];
+        Arrays.fill(multipliers, NEUTRAL);
+
+        BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        String line;
+        int lineNumber = 0;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split("\\s+");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": expected attacker, defender and multiplier");
+            }
+            Integer attacker = ordinals.get(parts[0]);
+            Integer defender = ordinals.get(parts[1]);
+            if (attacker == null || defender == null) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": unknown type in \"" + line + "\"");
+            }
+            multipliers[attacker * typeCount + defender] = Integer.parseInt(parts[2]);
+        }
+        return new TypeChart(typeCount, multipliers);
+    }
+
+    /**
+     * Loads the chart of the {@link CreatureType} values from the type chart resource.
+     *
+     * @return The loaded type chart.
+     */
+    private static TypeChart loadDefault() {
+        List<String> typeNames = new ArrayList<>();
+        for (CreatureType type : CreatureType.values()) {
+            typeNames.add(type.name());
+        }
+        try (InputStream is = TypeChart.class.getResourceAsStream(DEFAULT_CHART_PATH)) {
+            if (is == null) {
+                throw new IllegalStateException("Resource not found: " + DEFAULT_CHART_PATH);
+            }
+            return parse(new InputStreamReader(is, StandardCharsets.UTF_8), typeNames);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Gets the number of types in the chart.
+     *
+     * @return The number of types.
+     */
+    public int getTypeCount() {
+        return typeCount;
+    }
+
+    /**
+     * Gets the multiplier of an attacking type against a single defending type.
+     *
+     * @param attacker The ordinal of the attacking type.
+     * @param defender The ordinal of the defending type.
+     * @return The damage multiplier in percent.
+     */
+    public int getMultiplier(int attacker, int defender) {
+        return multipliers[attacker * typeCount + defender];
+    }
+
+    /**
+     * Gets the multiplier of an attacking type against a defender with one or two types.
+     * The multipliers against both types are combined.
+     *
+     * @param attacker     The ordinal of the attacking type.
+     * @param defenderMask The bitmask of the defender's type ordinals, with one or two bits set.
+     * @return The damage multiplier in percent.
+     */
+    public int getMultiplierForMask(int attacker, long defenderMask) {
+        int row = attacker * typeCount;
+        int multiplier = multipliers[row + Long.numberOfTrailingZeros(defenderMask)];
+        long secondType = defenderMask & (defenderMask - 1);
+        if (secondType != 0) {
+            multiplier = multiplier * multipliers[row + Long.numberOfTrailingZeros(secondType)] / NEUTRAL;
+        }
+        return multiplier;
+    }
+
+    /**
+     * Gets the multiplier of one creature type against another.
+     *
+     * @param attacker The type of the attacking creature.
+     * @param defender The type of the defending creature.
+     * @return The damage multiplier in percent.
+     */
+    public int getMultiplier(CreatureType attacker, CreatureType defender) {
+        return getMultiplier(attacker.ordinal(), defender.ordinal());
+    }
+
+    /**
+     * Applies the multiplier of one creature type against another to a damage value.
+     *
+     * @param damage   The damage before type effectiveness.
+     * @param attacker The type of the attacking creature.
+     * @param defender The type of the defending creature.
+     * @return The damage after type effectiveness, rounded down.
+     */
+    public int applyMultiplier(int damage, CreatureType attacker, CreatureType defender) {
+        return damage * getMultiplier(attacker.ordinal(), defender.ordinal()) / NEUTRAL;
+    }
+
+    /**
+     * Creates a bitmask holding the given types, for use with {@link #getMultiplierForMask(int, long)}.
+     *
+     * @param types The types of a creature.
+     * @return The bitmask of the type ordinals.
+     */
+    public static long typeMask(CreatureType... types) {
+        long mask = 0;
+        for (CreatureType type : types) {
+            mask |= 1L << type.ordinal();
+        }
+        return mask;
+    }
+}